@@ -0,0 +1,67 @@
+package challenge.benchmark;
+
+import challenge.configuration.logging.CachedHttpServletRequest;
+import challenge.configuration.logging.RequestBodyBufferPool;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.enums.Brand;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* captures a batch body the way LoggingFilter does and parses it back, 20 items fit the 16KB buffer, 2000 spill */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachedHttpServletRequestBenchmark {
+
+    @Param({"20", "2000"})
+    private int items;
+
+    private RequestBodyBufferPool pool;
+    private ObjectReader reader;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        pool = new RequestBodyBufferPool(16 * 1024, 4);
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reader = objectMapper.readerForListOf(CreditCardDto.class);
+
+        var cards = new ArrayList<CreditCardDto>(items);
+        for (int i = 0; i < items; i++) {
+            cards.add(new CreditCardDto(null, "12345678", 4501000100010001L + i, Brand.VISA, null, null));
+        }
+        body = objectMapper.writeValueAsBytes(cards);
+    }
+
+    @Benchmark
+    public List<CreditCardDto> captureAndParse() throws IOException {
+        var request = new MockHttpServletRequest("POST", "/credit-cards/batch");
+        request.setContent(body);
+
+        try (var cached = new CachedHttpServletRequest(request, pool)) {
+            return reader.readValue(cached.getInputStream());
+        }
+    }
+}
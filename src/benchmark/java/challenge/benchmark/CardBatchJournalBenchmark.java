@@ -0,0 +1,86 @@
+package challenge.benchmark;
+
+import challenge.event.ChangeType;
+import challenge.event.CreditCardChangedEvent;
+import challenge.event.CreditCardsCreatedEvent;
+import challenge.journal.CardChangeJournal;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * time to journal one chunk of a batch creation with fsync on, as the single request thread of the batch does it.
+ * perCardEvents waits for every card before queueing the next, so each one pays its own force; chunkEvent queues the
+ * whole chunk and waits once, so the writer forces it in batches of journal.batch-size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardBatchJournalBenchmark {
+
+    @Param({"100", "500"})
+    private int chunkSize;
+
+    private Path directory;
+    private CardChangeJournal journal;
+    private List<CreditCardDto> cards;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("batch-journal-benchmark");
+        journal = new CardChangeJournal(directory.toString(), DataSize.ofMegabytes(64), 256, 8192, true, 0,
+                Duration.ofSeconds(5));
+        cards = new ArrayList<>(chunkSize);
+        for (var i = 0; i < chunkSize; i++) {
+            cards.add(new CreditCardDto(UUID.randomUUID().toString(), "12345678", 4000000000000000L + i,
+                    Brand.VISA, Status.ACTIVE, LocalDateTime.now()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long perCardEvents() {
+        for (var card : cards) {
+            journal.on(new CreditCardChangedEvent(ChangeType.CREATED, null, card));
+        }
+        return journal.getCommittedOffset();
+    }
+
+    @Benchmark
+    public long chunkEvent() {
+        journal.on(new CreditCardsCreatedEvent(cards));
+        return journal.getCommittedOffset();
+    }
+}
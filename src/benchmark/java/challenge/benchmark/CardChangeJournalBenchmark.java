@@ -0,0 +1,70 @@
+package challenge.benchmark;
+
+import challenge.event.ChangeType;
+import challenge.journal.CardChangeJournal;
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * events per second appended to the journal by concurrent writers that wait for their batch, as the change listeners do.
+ * batchSize 1 is a write and force per event, bigger batches share the force between the waiting writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class CardChangeJournalBenchmark {
+
+    private static final String ID = "0194d8c0-2800-7000-8000-60f2adb9865a";
+
+    @Param({"1", "256"})
+    private int batchSize;
+
+    @Param({"true", "false"})
+    private boolean fsync;
+
+    private Path directory;
+    private CardChangeJournal journal;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        journal = new CardChangeJournal(directory.toString(), DataSize.ofMegabytes(64), batchSize, 8192, fsync, 0,
+                Duration.ofSeconds(5));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long append() {
+        return journal.append(ChangeType.UPDATED, ID, "12345678", Brand.VISA, Status.ACTIVE).join();
+    }
+}
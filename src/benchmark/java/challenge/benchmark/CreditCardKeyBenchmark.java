@@ -0,0 +1,159 @@
+package challenge.benchmark;
+
+import challenge.identifier.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * insert and primary key lookup on a file backed H2 table preloaded with rows cards, with the previous key scheme
+ * (random uuid as VARCHAR(36)) against the current one (uuid v7 as BINARY(16)). Both tables carry the customer
+ * index, whose entries include the primary key. mvn test-compile exec:exec -Pbenchmark -Djmh.args="CreditCardKeyBenchmark -p rows=5000000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditCardKeyBenchmark {
+
+    public enum KeyScheme {
+        VARCHAR_UUID4("VARCHAR(36)"),
+        BINARY_UUID7("BINARY(16)");
+
+        private final String columnType;
+
+        KeyScheme(String columnType) {
+            this.columnType = columnType;
+        }
+    }
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int LOOKUP_KEYS = 10_000;
+
+    @Param({"VARCHAR_UUID4", "BINARY_UUID7"})
+    private KeyScheme scheme;
+
+    @Param({"1000000"})
+    private int rows;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private PreparedStatement lookup;
+    private Object[] lookupKeys;
+    private long nextNumber;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("key-benchmark-");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("cards"), "sa", "");
+
+        try (var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE CREDIT_CARDS (ID " + scheme.columnType + " PRIMARY KEY, CUSTOMER_ID VARCHAR(255), " +
+                    "CARD_NUMBER BIGINT, CREATED_DATE TIMESTAMP)");
+            statement.execute("CREATE INDEX CREDIT_CARDS_CUSTOMER ON CREDIT_CARDS (CUSTOMER_ID)");
+        }
+
+        insert = connection.prepareStatement("INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, CREATED_DATE) VALUES (?, ?, ?, ?)");
+        lookup = connection.prepareStatement("SELECT CARD_NUMBER FROM CREDIT_CARDS WHERE ID = ?");
+
+        lookupKeys = new Object[LOOKUP_KEYS];
+        var every = Math.max(1, rows / LOOKUP_KEYS);
+
+        connection.setAutoCommit(false);
+        for (int i = 0; i < rows; i++) {
+            var key = newKey();
+            if (i % every == 0 && i / every < LOOKUP_KEYS) {
+                lookupKeys[i / every] = key;
+            }
+            bind(key);
+            insert.addBatch();
+            if ((i + 1) % BATCH_SIZE == 0) {
+                insert.executeBatch();
+                connection.commit();
+            }
+        }
+        insert.executeBatch();
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException, IOException {
+        connection.close();
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        bind(newKey());
+        return insert.executeUpdate();
+    }
+
+    @Benchmark
+    public long lookup() throws SQLException {
+        var key = lookupKeys[ThreadLocalRandom.current().nextInt(LOOKUP_KEYS)];
+        if (key == null) {
+            return -1;
+        }
+        setKey(lookup, 1, key);
+        try (var result = lookup.executeQuery()) {
+            return result.next() ? result.getLong(1) : -1;
+        }
+    }
+
+    private Object newKey() {
+        return switch (scheme) {
+            case VARCHAR_UUID4 -> UUID.randomUUID().toString();
+            case BINARY_UUID7 -> toBytes(UuidV7.generate());
+        };
+    }
+
+    private void bind(Object key) throws SQLException {
+        setKey(insert, 1, key);
+        insert.setString(2, "customer-" + (nextNumber % 10_000));
+        insert.setLong(3, 4_000_000_000_000_000L + nextNumber++);
+        insert.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+    }
+
+    private static void setKey(PreparedStatement statement, int index, Object key) throws SQLException {
+        if (key instanceof byte[] bytes) {
+            statement.setBytes(index, bytes);
+        } else {
+            statement.setString(index, (String) key);
+        }
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,62 @@
+package challenge.benchmark;
+
+import challenge.identifier.UuidV7;
+import challenge.mapper.CreditCardDtoMapper;
+import challenge.mapper.CreditCardMapper;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.entity.CreditCard;
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreditCardMapperBenchmark {
+
+    private CreditCard entity;
+    private CreditCardDto dto;
+
+    @Setup
+    public void setUp() {
+        entity = new CreditCard();
+        entity.setId(UuidV7.generate());
+        entity.setCustomer("12345678");
+        entity.setNumber(4501000100010001L);
+        entity.setBrand(Brand.VISA);
+        entity.setStatus(Status.ACTIVE);
+        entity.setCreatedDate(LocalDateTime.now());
+
+        dto = CreditCardDtoMapper.map(entity);
+    }
+
+    @Benchmark
+    public CreditCardDto entityToDto() {
+        return CreditCardDtoMapper.map(entity);
+    }
+
+    @Benchmark
+    public CreditCard dtoToEntity() {
+        return CreditCardMapper.map(dto);
+    }
+
+    @Benchmark
+    public CreditCard dtoToNewEntity() {
+        return CreditCardMapper.mapNew(dto);
+    }
+}
@@ -0,0 +1,107 @@
+package challenge.benchmark;
+
+import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.PageDto;
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * serializes the list responses the way the message converter does, with a Boot-like ObjectMapper:
+ * PageImpl/SliceImpl as returned before and the compact PageDto through a writer bound to its type.
+ * The setup prints the payload sizes, plain and gzipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreditCardPageSerializationBenchmark {
+
+    @Param({"20", "200"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter compactWriter;
+    private PageImpl<CreditCardDto> page;
+    private SliceImpl<CreditCardDto> slice;
+    private PageDto<CreditCardDto> compactPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        var type = objectMapper.getTypeFactory().constructParametricType(PageDto.class, CreditCardDto.class);
+        compactWriter = objectMapper.writerFor(type);
+
+        var cards = new ArrayList<CreditCardDto>(size);
+        for (int i = 0; i < size; i++) {
+            cards.add(new CreditCardDto(
+                    UUID.randomUUID().toString(),
+                    "12345678",
+                    4501000100010001L + i,
+                    i % 2 == 0 ? Brand.VISA : Brand.MASTERCARD,
+                    Status.ACTIVE,
+                    LocalDateTime.now()
+            ));
+        }
+
+        var pageable = PageRequest.of(0, size);
+        page = new PageImpl<>(cards, pageable, size * 10L);
+        slice = new SliceImpl<>(cards, pageable, true);
+        compactPage = PageDto.of(page);
+
+        var pageBytes = objectMapper.writeValueAsBytes(page);
+        var compactBytes = compactWriter.writeValueAsBytes(compactPage);
+        System.out.printf("%npayload bytes: page=%d (gzip %d) compact=%d (gzip %d)%n",
+                pageBytes.length, gzip(pageBytes), compactBytes.length, gzip(compactBytes));
+    }
+
+    private static int gzip(byte[] bytes) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] slice() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(slice);
+    }
+
+    @Benchmark
+    public byte[] compactPage() throws JsonProcessingException {
+        return compactWriter.writeValueAsBytes(compactPage);
+    }
+}
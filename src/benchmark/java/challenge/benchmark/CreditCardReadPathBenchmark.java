@@ -0,0 +1,113 @@
+package challenge.benchmark;
+
+import challenge.identifier.UuidV7;
+import challenge.mapper.CreditCardDtoMapper;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.criteria.CreditCardCriteriaDto;
+import challenge.model.entity.CreditCard;
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+import challenge.repository.CreditCardRepositoryImpl;
+import challenge.specification.CreditCardSpecification;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * a page of cards read as managed entities and mapped to dtos (the previous read path) against the dto constructor
+ * projection of CreditCardRepositoryImpl, on an in memory H2 with one session per read like a request would
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditCardReadPathBenchmark {
+
+    private static final String CUSTOMER = "12345678";
+    private static final int ROWS = 5000;
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    private SessionFactory sessionFactory;
+    private PageRequest pageable;
+    private final CreditCardCriteriaDto criteria = new CreditCardCriteriaDto(CUSTOMER, null);
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(CreditCard.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:read-path;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .buildSessionFactory();
+
+        sessionFactory.inStatelessTransaction(session -> {
+            var now = LocalDateTime.now();
+            for (int i = 0; i < ROWS; i++) {
+                var card = new CreditCard();
+                card.setId(UuidV7.generate());
+                card.setCustomer(CUSTOMER);
+                card.setNumber(4501000100000000L + i);
+                card.setBrand(i % 2 == 0 ? Brand.VISA : Brand.MASTERCARD);
+                card.setStatus(Status.ACTIVE);
+                card.setCreatedDate(now.plusSeconds(i));
+                session.insert(card);
+            }
+        });
+
+        pageable = PageRequest.of(0, pageSize, CreditCardSpecification.KEYSET_SORT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<CreditCardDto> managedEntities() {
+        return sessionFactory.fromTransaction(session -> {
+            var builder = session.getCriteriaBuilder();
+            var query = builder.createQuery(CreditCard.class);
+            var root = query.from(CreditCard.class);
+            query.where(CreditCardSpecification.get(criteria).toPredicate(root, query, builder));
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+
+            return session.createQuery(query)
+                    .setMaxResults(pageSize + 1)
+                    .getResultList()
+                    .stream()
+                    .limit(pageSize)
+                    .map(CreditCardDtoMapper::map)
+                    .toList();
+        });
+    }
+
+    @Benchmark
+    public List<CreditCardDto> dtoProjection() {
+        return sessionFactory.fromTransaction(session -> {
+            var repository = new CreditCardRepositoryImpl();
+            ReflectionTestUtils.setField(repository, "entityManager", session);
+            return repository.findSlice(CreditCardSpecification.get(criteria), pageable).getContent();
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package challenge.benchmark;
+
+import challenge.identifier.UuidV7;
+import challenge.model.dto.criteria.CreditCardCriteriaDto;
+import challenge.model.dto.criteria.CreditCardCursor;
+import challenge.model.entity.CreditCard;
+import challenge.model.enums.Status;
+import challenge.specification.CreditCardSpecification;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/* builds the criteria query the repository would run, against a real Hibernate criteria builder */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreditCardSpecificationBenchmark {
+
+    private static final CreditCardCriteriaDto BY_CUSTOMER = new CreditCardCriteriaDto("12345678", null);
+    private static final CreditCardCriteriaDto BY_CUSTOMER_AND_STATUS = new CreditCardCriteriaDto("12345678", Status.ACTIVE);
+    private static final CreditCardCursor CURSOR = new CreditCardCursor(LocalDateTime.now(), UuidV7.generate());
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(CreditCard.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:benchmark")
+                .setProperty("hibernate.hbm2ddl.auto", "none")
+                .buildSessionFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<CreditCard> byCustomer() {
+        return query(CreditCardSpecification.get(BY_CUSTOMER));
+    }
+
+    @Benchmark
+    public CriteriaQuery<CreditCard> byCustomerAndStatus() {
+        return query(CreditCardSpecification.get(BY_CUSTOMER_AND_STATUS));
+    }
+
+    @Benchmark
+    public CriteriaQuery<CreditCard> byCustomerAndStatusAfterCursor() {
+        return query(CreditCardSpecification.get(BY_CUSTOMER_AND_STATUS, CURSOR));
+    }
+
+    private CriteriaQuery<CreditCard> query(Specification<CreditCard> spec) {
+        var builder = sessionFactory.getCriteriaBuilder();
+        var query = builder.createQuery(CreditCard.class);
+        var root = query.from(CreditCard.class);
+        return query.where(spec.toPredicate(root, query, builder));
+    }
+}
@@ -0,0 +1,85 @@
+package challenge.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* Closed-model load: keeps `concurrency` requests in flight until `requests` are done */
+public class LoadGenerator {
+
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder()
+            .encodeToString("test_user:test_password".getBytes(StandardCharsets.UTF_8));
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public LoadResult run(String name, URI uri, int concurrency, int requests) throws InterruptedException {
+        var request = HttpRequest.newBuilder(uri)
+                .header("Authorization", AUTHORIZATION)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        /* warm up, the numbers should not include class loading and jit */
+        var warmUp = Math.max(1, requests / 10);
+        execute(request, concurrency, warmUp, new long[warmUp]);
+
+        var latencies = new long[requests];
+        var start = System.nanoTime();
+        var errors = execute(request, concurrency, requests, latencies);
+        var elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new LoadResult(
+                name,
+                requests,
+                errors,
+                requests / (elapsed / 1_000_000_000.0),
+                percentile(latencies, 0.50),
+                percentile(latencies, 0.99)
+        );
+    }
+
+    private int execute(HttpRequest request, int concurrency, int requests, long[] latencies) throws InterruptedException {
+        var permits = new Semaphore(concurrency);
+        var errors = new AtomicInteger();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var i = 0; i < requests; i++) {
+                permits.acquire();
+                var index = i;
+                executor.execute(() -> {
+                    var start = System.nanoTime();
+                    try {
+                        var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception ex) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - start;
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return errors.get();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        var index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
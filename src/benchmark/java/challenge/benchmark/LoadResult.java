@@ -0,0 +1,17 @@
+package challenge.benchmark;
+
+public record LoadResult(
+        String name,
+        int requests,
+        int errors,
+        double throughput,
+        double p50Millis,
+        double p99Millis
+) {
+
+    @Override
+    public String toString() {
+        return "%s: requests=[%d] errors=[%d] throughput=[%.0f req/s] p50=[%.1f ms] p99=[%.1f ms]"
+                .formatted(name, requests, errors, throughput, p50Millis, p99Millis);
+    }
+}
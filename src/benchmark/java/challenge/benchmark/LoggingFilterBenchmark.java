@@ -0,0 +1,132 @@
+package challenge.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import challenge.configuration.logging.LoggingFilter;
+import challenge.configuration.logging.TraceIdGenerator;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * runs the filter with the logback.xml encoder writing to a null stream instead of the console,
+ * either synchronously (STDOUT) or through the async appender (ASYNC)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LoggingFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @Param({"STDOUT", "ASYNC"})
+    private String appender;
+
+    private Appender<ILoggingEvent> benchmarkAppender;
+    private LoggingFilter filter;
+
+    /* one per thread, the filter keeps its "already filtered" flag as a request attribute */
+    @State(Scope.Thread)
+    public static class Requests {
+
+        private MockHttpServletRequest request;
+        private MockHttpServletRequest excludedRequest;
+        private MockHttpServletResponse response;
+
+        @Setup
+        public void setUp() {
+            request = new MockHttpServletRequest("GET", "/credit-cards");
+            request.setQueryString("customer=12345678&status=ACTIVE&page=0&size=20");
+            excludedRequest = new MockHttpServletRequest("GET", "/actuator/health");
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        var context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        var root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        var async = (AsyncAppender) root.getAppender("ASYNC");
+        var console = (OutputStreamAppender<ILoggingEvent>) async.getAppender("STDOUT");
+
+        var sink = new OutputStreamAppender<ILoggingEvent>();
+        sink.setContext(context);
+        sink.setEncoder(console.getEncoder());
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        if ("ASYNC".equals(appender)) {
+            var asyncSink = new AsyncAppender();
+            asyncSink.setContext(context);
+            asyncSink.setQueueSize(async.getQueueSize());
+            asyncSink.setDiscardingThreshold(async.getDiscardingThreshold());
+            asyncSink.setNeverBlock(async.isNeverBlock());
+            asyncSink.addAppender(sink);
+            asyncSink.start();
+            benchmarkAppender = asyncSink;
+        } else {
+            benchmarkAppender = sink;
+        }
+
+        root.detachAndStopAllAppenders();
+        root.addAppender(benchmarkAppender);
+
+        filter = new LoggingFilter(false, DataSize.ofKilobytes(16), 64);
+    }
+
+    @TearDown
+    public void tearDown() {
+        benchmarkAppender.stop();
+    }
+
+    @Benchmark
+    public void loggedRequest(Requests requests) throws ServletException, IOException {
+        filter.doFilter(requests.request, requests.response, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public void excludedRequest(Requests requests) throws ServletException, IOException {
+        filter.doFilter(requests.excludedRequest, requests.response, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public String traceId() {
+        return TraceIdGenerator.next();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+}
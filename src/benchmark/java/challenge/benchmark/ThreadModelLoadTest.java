@@ -0,0 +1,88 @@
+package challenge.benchmark;
+
+import challenge.ChallengeApi;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/*
+ * Thread-per-request vs virtual threads on /internal-credit-cards, whose downstream call blocks the request thread.
+ * The downstream is a local stub answering after a fixed delay, so the request thread pool is the bottleneck.
+ */
+class ThreadModelLoadTest {
+
+    /* defaults fit a small box, run with e.g. -Dload.concurrency=2000 -Dload.requests=50000 on a real one */
+    private static final int DOWNSTREAM_DELAY_MILLIS = Integer.getInteger("load.downstream-delay", 100);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 100);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 500);
+
+    private static final byte[] DOWNSTREAM_RESPONSE =
+            "{\"content\":[],\"totalPages\":0,\"totalElements\":0,\"number\":0,\"size\":20}".getBytes(StandardCharsets.UTF_8);
+
+    private static HttpServer downstream;
+
+    @BeforeAll
+    static void startDownstream() throws IOException {
+        downstream = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        downstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        downstream.createContext("/credit-cards", exchange -> {
+            try {
+                Thread.sleep(DOWNSTREAM_DELAY_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, DOWNSTREAM_RESPONSE.length);
+            try (var body = exchange.getResponseBody()) {
+                body.write(DOWNSTREAM_RESPONSE);
+            }
+        });
+        downstream.start();
+    }
+
+    @AfterAll
+    static void stopDownstream() {
+        downstream.stop(0);
+    }
+
+    @Test
+    void compareThreadModels() throws InterruptedException {
+        var platform = run("platform threads", false);
+        var virtual = run("virtual threads", true);
+
+        System.out.println(platform);
+        System.out.println(virtual);
+
+        Assertions.assertEquals(0, platform.errors());
+        Assertions.assertEquals(0, virtual.errors());
+    }
+
+    private LoadResult run(String name, boolean virtualThreads) throws InterruptedException {
+        /* as arguments, default properties would lose against application.yml */
+        var application = new SpringApplicationBuilder(ChallengeApi.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--clients.internal-call.url=http://localhost:" + downstream.getAddress().getPort(),
+                /* the client pool must not be the bottleneck instead of the request threads */
+                "--clients.internal-call.max-connections=" + CONCURRENCY,
+                "--logging.level.root=WARN",
+                "--logging.level.challenge=WARN"
+        );
+
+        try (application) {
+            var port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            var uri = URI.create("http://localhost:" + port + "/internal-credit-cards?customer_id=CUSTOMER_TEST_ID");
+            return new LoadGenerator().run(name, uri, CONCURRENCY, REQUESTS);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+# Starts the plain jar and the fast start build (AOT + CDS) a number of times each and prints the average time from
+# launch to a healthy actuator and to the first authenticated API response.
+# usage: startup-benchmark.sh <jar> <extracted application directory> <profiles> [runs]
+set -euo pipefail
+
+JAR=$1
+APPLICATION=$2
+PROFILES=$3
+RUNS=${4:-5}
+PORT=${STARTUP_BENCHMARK_PORT:-18080}
+TIMEOUT_SECONDS=60
+USERNAME=benchmark
+PASSWORD=benchmark
+
+now_millis() {
+    date +%s%3N
+}
+
+# prints "<millis to healthy> <millis to first request>" for one start of the given command
+measure() {
+    local journal
+    journal=$(mktemp -d)
+    local start
+    start=$(now_millis)
+
+    JOURNAL_DIRECTORY=$journal "$@" --spring.profiles.active="$PROFILES" --server.port="$PORT" \
+        --spring.security.user.name=$USERNAME --spring.security.user.password=$PASSWORD > "$journal/out.log" 2>&1 &
+    local pid=$!
+
+    local healthy=""
+    local deadline=$((start + TIMEOUT_SECONDS * 1000))
+    while [ "$(now_millis)" -lt "$deadline" ]; do
+        if curl -sf -o /dev/null "http://localhost:$PORT/actuator/health"; then
+            healthy=$(now_millis)
+            break
+        fi
+        sleep 0.02
+    done
+
+    if [ -z "$healthy" ]; then
+        kill "$pid" 2> /dev/null || true
+        echo "the application did not start in ${TIMEOUT_SECONDS}s, see $journal/out.log" >&2
+        exit 1
+    fi
+
+    curl -sf -o /dev/null -u "$USERNAME:$PASSWORD" "http://localhost:$PORT/credit-cards?customer_id=benchmark"
+    local first=$(now_millis)
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    rm -rf "$journal"
+    echo "$((healthy - start)) $((first - start))"
+}
+
+run() {
+    local name=$1
+    shift
+    local healthy_total=0
+    local first_total=0
+    for _ in $(seq "$RUNS"); do
+        read -r healthy first < <(measure "$@")
+        healthy_total=$((healthy_total + healthy))
+        first_total=$((first_total + first))
+    done
+    printf "%-12s %8d ms %8d ms\n" "$name" $((healthy_total / RUNS)) $((first_total / RUNS))
+}
+
+printf "%-12s %11s %11s   (average of %d runs)\n" "build" "healthy" "first req" "$RUNS"
+run "jar" java -jar "$JAR"
+run "aot + cds" java -XX:SharedArchiveFile="$APPLICATION/application.jsa" -Dspring.aot.enabled=true \
+    -jar "$APPLICATION/$(basename "$JAR")"
@@ -2,11 +2,13 @@ package challenge;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class ChallengeApi {
 
     public static void main(String[] args) {
-        SpringApplication.run(ChallengeApi.class);
+        SpringApplication.run(ChallengeApi.class, args);
     }
 }
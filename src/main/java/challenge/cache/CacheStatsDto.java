@@ -0,0 +1,11 @@
+package challenge.cache;
+
+public record CacheStatsDto(
+        String name,
+        long size,
+        long hits,
+        long misses,
+        double hitRate,
+        long evictions
+) {
+}
@@ -0,0 +1,168 @@
+package challenge.cache;
+
+import challenge.event.CreditCardChangedEvent;
+import challenge.event.CreditCardsCreatedEvent;
+import challenge.event.CustomerCardsDeactivatedEvent;
+import challenge.model.dto.VersionedCreditCardDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+ * Read-through cache for card lookups and customer list queries, holding the immutable dtos of the read path
+ * (writes load the entity from the repository). Entries are dropped by the change events and by TTL, which also
+ * bounds how stale a node gets on writes done by other instances.
+ */
+@Component
+public class CreditCardCache {
+
+    private static final String CARDS = "credit-cards";
+    private static final String CUSTOMER_QUERIES = "customer-queries";
+
+    private final Cache<String, VersionedCreditCardDto> cards;
+    /* customer -> (query -> result), so every query of a customer is invalidated at once */
+    private final Cache<String, Map<Object, Object>> customerQueries;
+    private final int maximumQueriesPerCustomer;
+    /* bumped before every card invalidation, a bulk load that saw it move does not keep what it read */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CreditCardCache(
+            @Value("${cache.credit-cards.maximum-size:10000}") long maximumSize,
+            @Value("${cache.credit-cards.maximum-customers:1000}") long maximumCustomers,
+            @Value("${cache.credit-cards.maximum-queries-per-customer:32}") int maximumQueriesPerCustomer,
+            @Value("${cache.credit-cards.ttl:5m}") Duration ttl
+    ) {
+        this.cards = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.customerQueries = Caffeine.newBuilder()
+                .maximumSize(maximumCustomers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.maximumQueriesPerCustomer = maximumQueriesPerCustomer;
+    }
+
+    public Optional<VersionedCreditCardDto> getCard(String id, Supplier<Optional<VersionedCreditCardDto>> loader) {
+        /* not found results are not cached */
+        return Optional.ofNullable(cards.get(id, key -> loader.get().orElse(null)));
+    }
+
+    /*
+     * the ids not cached go to the loader in one call, the ones it does not return are left out and not cached.
+     * Unlike a single get, the bulk load is not atomic with the entries: an invalidation committed while it runs could be
+     * followed by the put of the row read before it, so the loaded cards are dropped again when one happened meanwhile
+     */
+    public Map<String, VersionedCreditCardDto> getCards(Set<String> ids, Function<Set<? extends String>, Map<String, VersionedCreditCardDto>> loader) {
+        var found = new HashMap<>(cards.getAllPresent(ids));
+        if (found.size() == ids.size()) {
+            return found;
+        }
+
+        var missing = new HashSet<>(ids);
+        missing.removeAll(found.keySet());
+
+        var generation = invalidations.get();
+        var loaded = loader.apply(missing);
+        cards.putAll(loaded);
+        if (invalidations.get() != generation) {
+            cards.invalidateAll(loaded.keySet());
+        }
+
+        found.putAll(loaded);
+        return found;
+    }
+
+    public Optional<VersionedCreditCardDto> getCachedCard(String id) {
+        return Optional.ofNullable(cards.getIfPresent(id));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> getCachedCustomerQuery(String customer, Object query) {
+        var queries = customerQueries.getIfPresent(customer);
+        return queries == null ? Optional.empty() : Optional.ofNullable((T) queries.get(query));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getCustomerQuery(String customer, Object query, Supplier<T> loader) {
+        /*
+         * the map is taken before running the query and acts as its generation: an invalidation after that discards the
+         * whole map, so a result read before it is never put where later reads look
+         */
+        var queries = customerQueries.get(customer, key -> new ConcurrentHashMap<>());
+        var result = queries.get(query);
+
+        if (result != null) {
+            return (T) result;
+        }
+
+        /* the query runs outside the map lock, a concurrent miss of the same query may run it too */
+        var loaded = loader.get();
+        if (loaded != null && queries.size() < maximumQueriesPerCustomer) {
+            queries.putIfAbsent(query, loaded);
+        }
+        return loaded;
+    }
+
+    /* after commit: invalidating before it would let a concurrent read cache the old row again */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CreditCardChangedEvent event) {
+        invalidations.incrementAndGet();
+        cards.invalidate(event.current().id());
+        customerQueries.invalidate(event.current().customer());
+
+        if (event.previous() != null) {
+            customerQueries.invalidate(event.previous().customer());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CreditCardsCreatedEvent event) {
+        invalidations.incrementAndGet();
+        for (var card : event.cards()) {
+            cards.invalidate(card.id());
+            customerQueries.invalidate(card.customer());
+        }
+    }
+
+    /* the ids are unknown here, cached cards of the customer are found by a scan bounded by the cache size */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CustomerCardsDeactivatedEvent event) {
+        invalidations.incrementAndGet();
+        cards.asMap().values().removeIf(cached -> cached.card().customer().equals(event.customer())
+                && (event.brand() == null || event.brand() == cached.card().brand()));
+        customerQueries.invalidate(event.customer());
+    }
+
+    public List<CacheStatsDto> getStats() {
+        return List.of(stats(CARDS, cards), stats(CUSTOMER_QUERIES, customerQueries));
+    }
+
+    private static CacheStatsDto stats(String name, Cache<?, ?> cache) {
+        var stats = cache.stats();
+        return new CacheStatsDto(
+                name,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount()
+        );
+    }
+}
@@ -4,50 +4,128 @@ import challenge.client.exception.InternalCallClientException;
 import challenge.client.model.PageResponseDto;
 import challenge.model.dto.CreditCardDto;
 import challenge.model.dto.criteria.CreditCardCriteriaDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class InternalCallClient {
 
+    private static final String CLIENT_ERROR = "Error on internal api client call";
+    private static final String LATENCY_METRIC = "internal.call.latency";
+
     private final WebClient webClient;
-    private final String password;
-    private final String username;
-
-    public InternalCallClient(
-            @Value("${clients.internal-call.url}") String url,
-            @Value("${clients.internal-call.username}") String username,
-            @Value("${clients.internal-call.password}") String password
-    ) {
-        this.webClient = WebClient.builder().baseUrl(url).build();
-        this.username = username;
-        this.password = password;
+    private final ConnectionProvider connectionProvider;
+    private final InternalCallClientProperties properties;
+    /* recent calls only, drives the hedge delay */
+    private final LatencyHistogram latencies;
+    private final Timer successTimer;
+    private final Timer errorTimer;
+
+    /* the boot builder carries the observation that publishes http.client.requests */
+    public InternalCallClient(InternalCallClientProperties properties, WebClient.Builder webClientBuilder, MeterRegistry meterRegistry) {
+        this.connectionProvider = ConnectionProvider.builder("internal-call")
+                .maxConnections(properties.maxConnections())
+                .pendingAcquireTimeout(properties.pendingAcquireTimeout())
+                .maxIdleTime(properties.maxIdleTime())
+                .evictInBackground(properties.maxIdleTime())
+                .build();
+
+        var httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(properties.readTimeout())
+                /* accepts gzip responses and inflates them */
+                .compress(true);
+
+        this.webClient = webClientBuilder.clone()
+                .baseUrl(properties.url())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.properties = properties;
+        this.latencies = new LatencyHistogram(properties.hedge().window());
+        this.successTimer = timer(meterRegistry, "success");
+        this.errorTimer = timer(meterRegistry, "error");
+    }
+
+    /* every attempt, hedged ones included, so the exported distribution is the one the downstream serves */
+    private static Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(LATENCY_METRIC)
+                .description("Latency of the calls to the credit card api")
+                .tag("client", "internal-call")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
     }
 
     public PageResponseDto<CreditCardDto> getCards(CreditCardCriteriaDto criteria, Pageable pageable) {
-        /* ver de configurar timeout y manejo de errores */
+        var call = Mono.defer(() -> timed(request(criteria, pageable)));
+
+        /* it's a GET, sending it twice is safe */
+        var response = properties.hedge().enabled()
+                ? Mono.firstWithValue(call, call.delaySubscription(hedgeDelay()))
+                : call;
+
+        return response
+                .onErrorMap(ex -> !(ex instanceof InternalCallClientException), ex -> {
+                    log.error("Error on credit-card-api call: error=[{}]", ex.getMessage());
+                    return new InternalCallClientException(CLIENT_ERROR);
+                })
+                .block();
+    }
+
+    private Mono<PageResponseDto<CreditCardDto>> request(CreditCardCriteriaDto criteria, Pageable pageable) {
         var type = new ParameterizedTypeReference<PageResponseDto<CreditCardDto>>() {};
         return webClient.get()
                 .uri(uriBuilder -> uriBuilder.path("/credit-cards")
                         .queryParams(params(criteria, pageable))
                         .build())
-                .headers(httpHeaders -> httpHeaders.setBasicAuth(username, password))
+                .headers(httpHeaders -> httpHeaders.setBasicAuth(properties.username(), properties.password()))
                 .retrieve()
                 .onStatus(HttpStatusCode::isError, response -> response.bodyToMono(String.class).flatMap(error -> {
                     log.error("Error on credit-card-api call: status=[{}] response=[{}]", response.statusCode(), error);
-                    return Mono.error(new InternalCallClientException("Error on internal api client call"));
+                    return Mono.error(new InternalCallClientException(CLIENT_ERROR));
                 }))
-                .bodyToMono(type)
-                .block();
+                .bodyToMono(type);
+    }
+
+    private <T> Mono<T> timed(Mono<T> call) {
+        var start = System.nanoTime();
+        return call
+                .doOnSuccess(response -> {
+                    var elapsed = System.nanoTime() - start;
+                    latencies.record(elapsed);
+                    successTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                })
+                .doOnError(ex -> errorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    /* p95 (by default) of the recent calls, bounded so a cold or degraded histogram doesn't hedge everything or nothing */
+    private Duration hedgeDelay() {
+        var hedge = properties.hedge();
+        var observed = latencies.percentile(hedge.percentile());
+        if (observed == null || observed.compareTo(hedge.maxDelay()) > 0) {
+            return hedge.maxDelay();
+        }
+        return observed.compareTo(hedge.minDelay()) < 0 ? hedge.minDelay() : observed;
     }
 
     private MultiValueMap<String, String> params(CreditCardCriteriaDto criteria, Pageable pageable) {
@@ -67,4 +145,9 @@ public class InternalCallClient {
 
         return params;
     }
-}
\ No newline at end of file
+
+    @PreDestroy
+    public void close() {
+        connectionProvider.dispose();
+    }
+}
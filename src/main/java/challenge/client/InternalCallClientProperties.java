@@ -0,0 +1,30 @@
+package challenge.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("clients.internal-call")
+public record InternalCallClientProperties(
+        String url,
+        String username,
+        String password,
+        @DefaultValue("1s") Duration connectTimeout,
+        @DefaultValue("3s") Duration readTimeout,
+        @DefaultValue("100") int maxConnections,
+        @DefaultValue("1s") Duration pendingAcquireTimeout,
+        @DefaultValue("30s") Duration maxIdleTime,
+        @DefaultValue Hedge hedge
+) {
+
+    /* a second request is sent if the first one takes longer than the observed percentile */
+    public record Hedge(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("0.95") double percentile,
+            @DefaultValue("20ms") Duration minDelay,
+            @DefaultValue("1s") Duration maxDelay,
+            @DefaultValue("1m") Duration window
+    ) {
+    }
+}
@@ -0,0 +1,105 @@
+package challenge.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Lock free latency histogram with log-linear buckets (8 sub buckets per power of two, ~12% precision).
+ * Keeps the current and the previous window, so percentiles follow recent latencies.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 8;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final long windowNanos;
+    private final AtomicReference<Window> current;
+    private volatile Window previous;
+
+    public LatencyHistogram(Duration window) {
+        this.windowNanos = window.toNanos();
+        this.current = new AtomicReference<>(new Window(System.nanoTime()));
+        this.previous = new Window(System.nanoTime());
+    }
+
+    public void record(long nanos) {
+        window().counts.incrementAndGet(bucket(Math.max(1, nanos / 1000)));
+    }
+
+    public long count() {
+        var window = window();
+        return total(window) + total(previous);
+    }
+
+    /* upper bound of the bucket holding the percentile, null if nothing was recorded */
+    public Duration percentile(double percentile) {
+        var window = window();
+        var previousWindow = previous;
+        var total = total(window) + total(previousWindow);
+        if (total == 0) {
+            return null;
+        }
+
+        var rank = (long) Math.ceil(percentile * total);
+        var seen = 0L;
+        for (var bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += window.counts.get(bucket) + previousWindow.counts.get(bucket);
+            if (seen >= rank) {
+                return Duration.ofNanos(upperBoundMicros(bucket) * 1000);
+            }
+        }
+        return Duration.ofNanos(upperBoundMicros(BUCKETS - 1) * 1000);
+    }
+
+    private Window window() {
+        var window = current.get();
+        var now = System.nanoTime();
+        if (now - window.start < windowNanos) {
+            return window;
+        }
+
+        var next = new Window(now);
+        if (current.compareAndSet(window, next)) {
+            previous = window;
+            return next;
+        }
+        return current.get();
+    }
+
+    private static long total(Window window) {
+        var total = 0L;
+        for (var bucket = 0; bucket < BUCKETS; bucket++) {
+            total += window.counts.get(bucket);
+        }
+        return total;
+    }
+
+    private static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        var exponent = 63 - Long.numberOfLeadingZeros(micros);
+        var mantissa = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa);
+    }
+
+    private static long upperBoundMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        var exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        var mantissa = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + mantissa + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private static final class Window {
+        private final long start;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+}
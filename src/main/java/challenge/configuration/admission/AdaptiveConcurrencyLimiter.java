@@ -0,0 +1,66 @@
+package challenge.configuration.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Global limit of requests in flight that follows the latency (AIMD): every request that finishes under the latency
+ * target while the limit is in use grows it by 1/limit, about one more per round of requests, and every one over the
+ * target or failed cuts it by the backoff ratio. Requests over the limit are turned away instead of queued.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoff;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /* double bits of the current limit */
+    private final AtomicLong limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos, double backoff) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoff = backoff;
+        this.limit = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            var current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /* gives the permit back without a sample, for requests whose latency says nothing about the load */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void release(long latencyNanos, boolean failed) {
+        var used = inFlight.getAndDecrement();
+        if (failed || latencyNanos > latencyTargetNanos) {
+            limit.getAndUpdate(bits -> Double.doubleToLongBits(Math.max(minLimit, Double.longBitsToDouble(bits) * backoff)));
+        } else {
+            limit.getAndUpdate(bits -> {
+                var current = Double.longBitsToDouble(bits);
+                /* a limit that is not reached says nothing about a bigger one */
+                return used * 2 < current ? bits : Double.doubleToLongBits(Math.min(maxLimit, current + 1 / current));
+            });
+        }
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
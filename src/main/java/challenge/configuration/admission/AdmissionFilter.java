@@ -0,0 +1,92 @@
+package challenge.configuration.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/*
+ * Sheds load before it reaches authentication and JPA: requests over the concurrency limit get a 503 right away and
+ * with a Retry-After. The per customer rate is checked by CustomerRateLimitFilter, once the caller is authenticated.
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final String OVERLOADED = "overloaded";
+    private static final String OVERLOADED_MESSAGE = "The service is overloaded, retry later";
+
+    private static final String[] EXCLUDED_PATHS = {
+            "/v3/api-docs",
+            "/swagger-ui",
+            "/actuator"
+    };
+
+    /* long by design, they hold a permit but their latency is not a load signal */
+    private static final String[] UNTIMED_PATHS = {
+            "/credit-cards/export",
+            "/credit-cards/changes"
+    };
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final long overloadedRetryAfterSeconds;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionFilter(
+            @Value("${admission.enabled:true}") boolean enabled,
+            @Value("${admission.concurrency.initial-limit:64}") int initialLimit,
+            @Value("${admission.concurrency.min-limit:8}") int minLimit,
+            @Value("${admission.concurrency.max-limit:400}") int maxLimit,
+            @Value("${admission.concurrency.latency-target:250ms}") Duration latencyTarget,
+            @Value("${admission.concurrency.backoff:0.9}") double backoff,
+            @Value("${admission.concurrency.retry-after:1s}") Duration overloadedRetryAfter,
+            ObjectMapper objectMapper
+    ) {
+        this.enabled = enabled;
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyTarget.toNanos(), backoff);
+        this.overloadedRetryAfterSeconds = Math.max(1, overloadedRetryAfter.toSeconds());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || AdmissionRejection.startsWithAny(request.getRequestURI(), EXCLUDED_PATHS);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!concurrencyLimiter.tryAcquire()) {
+            log.debug("Rejected request, {} in flight over the limit", concurrencyLimiter.getInFlight());
+            AdmissionRejection.reject(objectMapper, response, HttpStatus.SERVICE_UNAVAILABLE, OVERLOADED, OVERLOADED_MESSAGE,
+                    overloadedRetryAfterSeconds);
+            return;
+        }
+
+        var start = System.nanoTime();
+        var failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            /* an async request has only left the thread here, its latency is unknown */
+            if (request.isAsyncStarted() || AdmissionRejection.startsWithAny(request.getRequestURI(), UNTIMED_PATHS)) {
+                concurrencyLimiter.release();
+            } else {
+                concurrencyLimiter.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package challenge.configuration.admission;
+
+import challenge.controller.error.ErrorApiDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+
+/* the immediate answer of the admission filters, an error body and a Retry-After */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class AdmissionRejection {
+
+    static void reject(
+            ObjectMapper objectMapper,
+            HttpServletResponse response,
+            HttpStatus status,
+            String type,
+            String message,
+            long retryAfterSeconds
+    ) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorApiDto(status.value(), type, message));
+    }
+
+    static boolean startsWithAny(String uri, String[] paths) {
+        for (var path : paths) {
+            if (uri.startsWith(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,73 @@
+package challenge.configuration.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Requests of a customer over its rate get a 429 right away, with a Retry-After. It runs after authentication, so an
+ * anonymous caller naming a customer_id cannot spend that customer's tokens.
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class CustomerRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String CUSTOMER_ID = "customer_id";
+    private static final String TOO_MANY_REQUESTS = "too_many_requests";
+    private static final String TOO_MANY_REQUESTS_MESSAGE = "Too many requests for the customer, retry later";
+
+    private final boolean enabled;
+    private final CustomerRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public CustomerRateLimitFilter(
+            @Value("${admission.enabled:true}") boolean enabled,
+            @Value("${admission.customer.maximum-customers:100000}") long maximumCustomers,
+            @Value("${admission.customer.permits-per-second:50}") double permitsPerSecond,
+            @Value("${admission.customer.burst:100}") int burst,
+            ObjectMapper objectMapper
+    ) {
+        this.enabled = enabled;
+        this.rateLimiter = new CustomerRateLimiter(maximumCustomers, permitsPerSecond, burst, System::nanoTime);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var customer = request.getParameter(CUSTOMER_ID);
+        /* the public paths pass the security chain without a principal, they do not draw from a customer */
+        if (customer != null && request.getUserPrincipal() != null) {
+            var wait = rateLimiter.tryAcquire(customer);
+            if (wait != CustomerRateLimiter.ADMITTED) {
+                log.debug("Rejected request of customer {}, over its rate", customer);
+                AdmissionRejection.reject(objectMapper, response, HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_REQUESTS,
+                        TOO_MANY_REQUESTS_MESSAGE, secondsToWait(wait));
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static long secondsToWait(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
@@ -0,0 +1,55 @@
+package challenge.configuration.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+ * Token bucket per customer kept as one long, the time at which the bucket is full again (GCRA). A request is admitted
+ * while that time is less than the burst ahead of now and moves it one interval further, with a CAS and no lock.
+ * Every customer has its own bucket in a bounded map; a bucket idle for longer than the burst is full again anyway,
+ * so it expires, and only the eviction of an active customer over the maximum can hand it a fresh bucket.
+ */
+public class CustomerRateLimiter {
+
+    public static final long ADMITTED = 0;
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    /* times are kept from here on, so a new bucket (0) is always full */
+    private final long origin;
+
+    public CustomerRateLimiter(long maximumCustomers, double permitsPerSecond, int burst, LongSupplier clock) {
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * (burst - 1);
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumCustomers)
+                .expireAfterAccess(Duration.ofNanos(burstNanos + intervalNanos))
+                .ticker(clock::getAsLong)
+                .build();
+    }
+
+    /* ADMITTED, or the nanos to wait before the customer has a token again */
+    public long tryAcquire(String customer) {
+        var bucket = buckets.get(customer, key -> new AtomicLong());
+        while (true) {
+            var now = clock.getAsLong() - origin;
+            var full = bucket.get();
+            var start = Math.max(full, now);
+            var wait = start - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, start + intervalNanos)) {
+                return ADMITTED;
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package challenge.configuration.json;
+
+import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.PageDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfiguration {
+
+    /*
+     * a writer for the type resolves its serializers into the cache of the shared ObjectMapper,
+     * so the list responses are bound at startup instead of on the first request
+     */
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> serializerWarmUp(ObjectMapper objectMapper) {
+        return event -> objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructParametricType(PageDto.class, CreditCardDto.class));
+    }
+}
@@ -3,35 +3,104 @@ package challenge.configuration.logging;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
-import org.springframework.util.StreamUtils;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
-public class CachedHttpServletRequest extends HttpServletRequestWrapper {
+/*
+ * Captures the body into a pooled buffer of the pool buffer size. Bodies that do not fit are spilled to a temp file,
+ * so the heap used per request is bounded. Must be closed once the request is done to give the buffer back.
+ */
+public class CachedHttpServletRequest extends HttpServletRequestWrapper implements Closeable {
 
-    private byte[] cachedPayload;
+    private final RequestBodyBufferPool pool;
+    private byte[] buffer;
+    private final int bufferedLength;
+    private final long length;
+    private final Path spill;
 
-    public CachedHttpServletRequest(HttpServletRequest request) throws IOException {
+    public CachedHttpServletRequest(HttpServletRequest request, RequestBodyBufferPool pool) throws IOException {
         super(request);
-        var requestInputStream = request.getInputStream();
-        this.cachedPayload = StreamUtils.copyToByteArray(requestInputStream);
+        this.pool = pool;
+        this.buffer = pool.acquire();
+
+        try {
+            var requestInputStream = request.getInputStream();
+            this.bufferedLength = requestInputStream.readNBytes(buffer, 0, buffer.length);
+
+            var next = bufferedLength == buffer.length ? requestInputStream.read() : -1;
+            if (next == -1) {
+                this.length = bufferedLength;
+                this.spill = null;
+                return;
+            }
+
+            this.spill = Files.createTempFile("request-body-", ".tmp");
+            try (var out = Files.newOutputStream(spill)) {
+                out.write(buffer, 0, bufferedLength);
+                out.write(next);
+                this.length = bufferedLength + 1 + requestInputStream.transferTo(out);
+            } catch (IOException | RuntimeException ex) {
+                Files.deleteIfExists(spill);
+                throw ex;
+            }
+        } catch (IOException | RuntimeException ex) {
+            /* nobody gets to close a request that was never built */
+            pool.release(buffer);
+            throw ex;
+        }
+    }
+
+    public long getCachedLength() {
+        return length;
+    }
+
+    public boolean isSpilled() {
+        return spill != null;
     }
 
-    public byte[] getCachedPayload() {
-        return cachedPayload;
+    public boolean isClosed() {
+        return buffer == null;
+    }
+
+    /* at most the first buffer of the body, decoded with the request charset */
+    public String getCachedPrefix() {
+        return new String(buffer, 0, bufferedLength, charset());
     }
 
     @Override
-    public ServletInputStream getInputStream() {
-        return new CachedServletInputStream(this.cachedPayload);
+    public ServletInputStream getInputStream() throws IOException {
+        if (spill != null) {
+            return new CachedServletInputStream(Files.newInputStream(spill));
+        }
+        return new CachedServletInputStream(new ByteArrayInputStream(buffer, 0, bufferedLength));
     }
 
     @Override
-    public BufferedReader getReader() {
-        ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(this.cachedPayload);
-        return new BufferedReader(new InputStreamReader(byteArrayInputStream));
+    public BufferedReader getReader() throws IOException {
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+        }
+        if (spill != null) {
+            Files.deleteIfExists(spill);
+        }
+    }
+
+    private Charset charset() {
+        var encoding = getCharacterEncoding();
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
     }
 }
@@ -3,16 +3,16 @@ package challenge.configuration.logging;
 import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 public class CachedServletInputStream extends ServletInputStream {
 
     private final InputStream cachedInputStream;
 
-    public CachedServletInputStream(byte[] cachedBody) {
-        this.cachedInputStream = new ByteArrayInputStream(cachedBody);
+    public CachedServletInputStream(InputStream cachedInputStream) {
+        this.cachedInputStream = cachedInputStream;
     }
 
     @Override
@@ -38,4 +38,40 @@ public class CachedServletInputStream extends ServletInputStream {
     public int read() throws IOException {
         return cachedInputStream.read();
     }
+
+    /* bulk paths go straight to the cached stream, Jackson reads in chunks instead of byte per byte */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return cachedInputStream.read(b, off, len);
+    }
+
+    @Override
+    public byte[] readAllBytes() throws IOException {
+        return cachedInputStream.readAllBytes();
+    }
+
+    @Override
+    public int readNBytes(byte[] b, int off, int len) throws IOException {
+        return cachedInputStream.readNBytes(b, off, len);
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        return cachedInputStream.transferTo(out);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        return cachedInputStream.skip(n);
+    }
+
+    @Override
+    public int available() throws IOException {
+        return cachedInputStream.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        cachedInputStream.close();
+    }
 }
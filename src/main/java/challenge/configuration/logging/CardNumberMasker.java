@@ -0,0 +1,35 @@
+package challenge.configuration.logging;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.regex.Pattern;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CardNumberMasker {
+
+    private static final Pattern NUMBER = Pattern.compile("(\"number\"\\s*:\\s*\"?)(\\d+)");
+    private static final int VISIBLE_DIGITS = 4;
+
+    /*
+     * Replaces the digits of every "number" field with '*' but the last four. A number cut by the end of a truncated
+     * body is masked whole, its last digits there are not the last digits of the card
+     */
+    public static String mask(String body) {
+        var matcher = NUMBER.matcher(body);
+        if (!matcher.find()) {
+            return body;
+        }
+
+        var masked = new StringBuilder(body.length());
+        do {
+            var digits = matcher.group(2);
+            var visible = matcher.end() < body.length() ? Math.min(VISIBLE_DIGITS, digits.length()) : 0;
+            matcher.appendReplacement(masked, "");
+            masked.append(matcher.group(1))
+                    .repeat('*', digits.length() - visible)
+                    .append(digits, digits.length() - visible, digits.length());
+        } while (matcher.find());
+        return matcher.appendTail(masked).toString();
+    }
+}
@@ -1,5 +1,7 @@
 package challenge.configuration.logging;
 
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebFilter;
@@ -8,12 +10,13 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.UUID;
 
 @Component
 @WebFilter(filterName = "LoggingFilter", urlPatterns = "/*")
@@ -22,30 +25,80 @@ public class LoggingFilter extends OncePerRequestFilter {
     private static final String TRACE_ID = "TraceId";
     private static final Logger log = LoggerFactory.getLogger(LoggingFilter.class);
 
-    private static final List<String> EXCLUDED_PATHS = List.of(
+    /* plain array scanned with startsWith, no stream or lambda per request */
+    private static final String[] EXCLUDED_PATHS = {
             "/v3/api-docs",
             "/swagger-ui",
-            "/actuator/health"
-    );
+            "/actuator"
+    };
+
+    /* null when body logging is disabled */
+    private final RequestBodyBufferPool bodyBufferPool;
+
+    public LoggingFilter(
+            @Value("${logging.request-body.enabled:false}") boolean bodyLoggingEnabled,
+            @Value("${logging.request-body.max-size:16KB}") DataSize bodyMaxSize,
+            @Value("${logging.request-body.pool-size:64}") int bodyPoolSize
+    ) {
+        this.bodyBufferPool = bodyLoggingEnabled
+                ? new RequestBodyBufferPool((int) bodyMaxSize.toBytes(), bodyPoolSize)
+                : null;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        if (EXCLUDED_PATHS.stream().anyMatch(path -> request.getRequestURI().startsWith(path))) {
+        if (isExcluded(request.getRequestURI())) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        var traceId = UUID.randomUUID().toString();
-        MDC.put(TRACE_ID, traceId);
+        MDC.put(TRACE_ID, TraceIdGenerator.next());
+        try {
+            if (bodyBufferPool != null && hasBody(request)) {
+                doFilterWithBody(new CachedHttpServletRequest(request, bodyBufferPool), response, filterChain);
+            } else {
+                logRequest(request);
+                filterChain.doFilter(request, response);
+                logResponse(request, response);
+            }
+        } finally {
+            MDC.remove(TRACE_ID);
+        }
+    }
 
-        logRequest(request);
-        filterChain.doFilter(request, response);
-        logResponse(request, response);
+    private void doFilterWithBody(CachedHttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        try {
+            logRequest(request);
+            logBody(request);
+            filterChain.doFilter(request, response);
+            logResponse(request, response);
+        } finally {
+            /* an async request may still read the body after this returns, its buffer is given back once it ends */
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ClosingAsyncListener(request));
+            } else {
+                request.close();
+            }
+        }
+    }
 
-        MDC.remove(TRACE_ID);
+    private static boolean hasBody(HttpServletRequest request) {
+        return request.getContentLengthLong() > 0 || request.getHeader(HttpHeaders.TRANSFER_ENCODING) != null;
+    }
+
+    private static boolean isExcluded(String uri) {
+        for (var path : EXCLUDED_PATHS) {
+            if (uri.startsWith(path)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void logRequest(HttpServletRequest request) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
         log.info("INCOMING REQUEST: method=[{}] path=[{}] params=[{}]",
                 request.getMethod(),
                 request.getRequestURI(),
@@ -53,7 +106,21 @@ public class LoggingFilter extends OncePerRequestFilter {
         );
     }
 
+    private void logBody(CachedHttpServletRequest request) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        log.info("REQUEST BODY: size=[{}] truncated=[{}] body=[{}]",
+                request.getCachedLength(),
+                request.isSpilled(),
+                CardNumberMasker.mask(request.getCachedPrefix())
+        );
+    }
+
     private void logResponse(HttpServletRequest request, HttpServletResponse response) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
         log.info("REQUEST RESPONSE: method=[{}] path=[{}] status=[{}]",
                 request.getMethod(),
                 request.getRequestURI(),
@@ -61,4 +128,29 @@ public class LoggingFilter extends OncePerRequestFilter {
         );
     }
 
+    /* closes the captured request when the async cycle ends, however it ends */
+    private record ClosingAsyncListener(CachedHttpServletRequest request) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            request.close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) throws IOException {
+            request.close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException {
+            request.close();
+        }
+
+        /* listeners are dropped when the request starts a new async cycle */
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
 }
@@ -0,0 +1,35 @@
+package challenge.configuration.logging;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class TraceIdGenerator {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /*
+     * 32 hex chars: 48 bits of epoch millis followed by 80 random bits, so ids sort by creation time (to the millisecond).
+     * ThreadLocalRandom instead of the SecureRandom behind UUID.randomUUID, trace ids do not need to be unguessable
+     */
+    public static String next() {
+        var random = ThreadLocalRandom.current();
+        var high = (System.currentTimeMillis() << 16) | (random.nextInt() & 0xFFFF);
+        var low = random.nextLong();
+
+        var chars = new byte[32];
+        write(high, chars, 0);
+        write(low, chars, 16);
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    private static void write(long value, byte[] chars, int offset) {
+        for (int i = offset + 15; i >= offset; i--) {
+            chars[i] = HEX[(int) value & 0xF];
+            value >>>= 4;
+        }
+    }
+}
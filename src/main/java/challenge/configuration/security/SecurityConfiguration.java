@@ -1,18 +1,33 @@
 package challenge.configuration.security;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+import java.util.regex.Pattern;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfiguration {
 
+    /* same rule as spring boot: a password without an {id} prefix is taken as plain text */
+    private static final Pattern ENCODED_PASSWORD = Pattern.compile("^\\{.+}.*$");
+    private static final String NOOP_PREFIX = "{noop}";
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         /* Se configura un basic para permitir testeo pero idealmente deberia ser un JWT con algun gateway de la empresa */
@@ -23,7 +38,8 @@ public class SecurityConfiguration {
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
-                                "/webjars/**"
+                                "/webjars/**",
+                                "/actuator/health"
                         ).permitAll()
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -32,4 +48,34 @@ public class SecurityConfiguration {
         return http.build();
     }
 
-}
\ No newline at end of file
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    }
+
+    /*
+     * stateless basic auth checks the password on every request, the cache makes that once per TTL.
+     * The configured user lives inside the provider, a UserDetailsService bean next to it would be ignored with a warning
+     */
+    @Bean
+    public AuthenticationProvider authenticationProvider(
+            SecurityProperties properties,
+            PasswordEncoder passwordEncoder,
+            @Value("${security.credentials-cache.ttl:1m}") Duration ttl,
+            @Value("${security.credentials-cache.maximum-size:1000}") long maximumSize
+    ) {
+        var user = properties.getUser();
+        var password = ENCODED_PASSWORD.matcher(user.getPassword()).matches()
+                ? user.getPassword()
+                : NOOP_PREFIX + user.getPassword();
+
+        var provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(user.getName())
+                .password(password)
+                .roles(user.getRoles().toArray(String[]::new))
+                .build()));
+        provider.setPasswordEncoder(passwordEncoder);
+        return new CachingAuthenticationProvider(provider, ttl, maximumSize);
+    }
+
+}
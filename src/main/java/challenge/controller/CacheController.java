@@ -0,0 +1,21 @@
+package challenge.controller;
+
+import challenge.cache.CacheStatsDto;
+import challenge.cache.CreditCardCache;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+public class CacheController {
+
+    private final CreditCardCache creditCardCache;
+
+    @GetMapping("/caches/stats")
+    public List<CacheStatsDto> getStats() {
+        return creditCardCache.getStats();
+    }
+}
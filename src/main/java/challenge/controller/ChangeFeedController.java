@@ -0,0 +1,38 @@
+package challenge.controller;
+
+import challenge.model.dto.ChangeFeedDto;
+import challenge.service.ChangeFeedService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@AllArgsConstructor
+public class ChangeFeedController {
+
+    private static final int MAX_SIZE = 1000;
+
+    private final ChangeFeedService changeFeedService;
+
+    /* without since the feed starts from the oldest change */
+    @GetMapping("/credit-cards/changes")
+    public ChangeFeedDto getChanges(
+            @RequestParam(value = "since", required = false) String since,
+            @RequestParam(value = "size", defaultValue = "100") int size
+    ) {
+        return changeFeedService.getChanges(since, Math.clamp(size, 1, MAX_SIZE));
+    }
+
+    /* a reconnecting EventSource sends the id of the last event it got, which wins over since */
+    @GetMapping(value = "/credit-cards/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(value = "since", required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return changeFeedService.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
@@ -1,16 +1,32 @@
 package challenge.controller;
 
 import challenge.mapper.CreditCardDtoMapper;
+import challenge.model.dto.BatchResultDto;
+import challenge.model.dto.CardLookupRequestDto;
+import challenge.model.dto.CardLookupResultDto;
 import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.CursorPageDto;
+import challenge.model.dto.DeactivationResultDto;
+import challenge.model.dto.PageDto;
 import challenge.model.dto.criteria.CreditCardCriteriaDto;
+import challenge.model.enums.Brand;
 import challenge.model.enums.Status;
+import challenge.model.enums.ExportFormat;
+import challenge.service.CreditCardBatchService;
+import challenge.service.CreditCardExportService;
+import challenge.service.CreditCardLookupService;
 import challenge.service.CreditCardService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,27 +36,65 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.util.Optional;
 
 @RestController
 @AllArgsConstructor
 public class CreditCardController {
 
+    /* stored by the client but checked on every use, instead of the no-store default of spring security */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final CreditCardService creditCardService;
+    private final CreditCardBatchService creditCardBatchService;
+    private final CreditCardExportService creditCardExportService;
+    private final CreditCardLookupService creditCardLookupService;
+    private final ObjectMapper objectMapper;
 
+    /*
+     * weak etag over the count, version sum and last modified date of the customer's cards. That aggregate is only run
+     * for a conditional request or one that already pays the page COUNT; otherwise the etag is sent when it is cached
+     */
     @GetMapping("/credit-cards")
-    public Page<CreditCardDto> getCards(
+    public ResponseEntity<PageDto<CreditCardDto>> getCards(
             @RequestParam("customer_id") String customer,
             @RequestParam(value = "status", required = false) Status status,
-            Pageable pageable
+            @RequestParam(value = "include_total", defaultValue = "true") boolean includeTotal,
+            Pageable pageable,
+            WebRequest request
     ) {
+        var version = request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || includeTotal
+                ? Optional.of(creditCardService.getCardsVersion(customer))
+                : creditCardService.getCachedCardsVersion(customer);
+        var eTag = version.map(value -> "W/\"" + value + '"').orElse(null);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+
         var criteria = new CreditCardCriteriaDto(customer, status);
-        var cards = creditCardService.getCardsByCriteria(criteria, pageable);
+        var cards = includeTotal
+                ? creditCardService.getCardsByCriteria(criteria, pageable)
+                : creditCardService.getCardsSliceByCriteria(criteria, pageable);
 
-        return new PageImpl<>(
-                cards.map(CreditCardDtoMapper::map).toList(),
-                pageable,
-                cards.getTotalElements()
-        );
+        var response = ResponseEntity.ok().cacheControl(REVALIDATE);
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        return response.body(PageDto.of(cards));
+    }
+
+    @GetMapping(value = "/credit-cards", params = "cursor")
+    public CursorPageDto<CreditCardDto> getCardsByCursor(
+            @RequestParam("customer_id") String customer,
+            @RequestParam(value = "status", required = false) Status status,
+            @RequestParam("cursor") String cursor,
+            Pageable pageable
+    ) {
+        var criteria = new CreditCardCriteriaDto(customer, status);
+        return creditCardService.getCardsByCursor(criteria, cursor, pageable.getPageSize());
     }
 
     @ResponseStatus(HttpStatus.CREATED)
@@ -49,9 +103,51 @@ public class CreditCardController {
         return CreditCardDtoMapper.map(creditCardService.create(request));
     }
 
+    /* accepts a json array or ndjson, the body is read as a stream and never fully loaded */
+    @PostMapping(
+            value = "/credit-cards/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public BatchResultDto createBatch(HttpServletRequest request) throws IOException {
+        try (var items = objectMapper.readerFor(CreditCardDto.class).<CreditCardDto>readValues(request.getInputStream())) {
+            return creditCardBatchService.create(items);
+        }
+    }
+
+    /* many cards by id in one call, the missing ones are reported instead of failing the request */
+    @PostMapping("/credit-cards/lookup")
+    public CardLookupResultDto lookup(@RequestBody @Valid CardLookupRequestDto request) {
+        return creditCardLookupService.lookup(request.ids());
+    }
+
+    @GetMapping("/credit-cards/export")
+    public void export(
+            @RequestParam("customer_id") String customer,
+            @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        creditCardExportService.export(customer, format, response.getOutputStream());
+    }
+
+    /* a client sending back the etag gets its answer from the version alone */
     @GetMapping("/credit-cards/{id}")
-    private CreditCardDto getCard(@PathVariable String id) {
-        return CreditCardDtoMapper.map(creditCardService.getById(id));
+    private ResponseEntity<CreditCardDto> getCard(@PathVariable String id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(eTag(creditCardService.getVersion(id)))) {
+            return null;
+        }
+
+        var card = creditCardService.getVersionedById(id);
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(eTag(card.version()))
+                .body(card.card());
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + '"';
     }
 
     @PutMapping("/credit-cards/{id}")
@@ -59,6 +155,14 @@ public class CreditCardController {
         return CreditCardDtoMapper.map(creditCardService.update(id, request));
     }
 
+    @DeleteMapping(value = "/credit-cards", params = "customer_id")
+    public DeactivationResultDto removeByCustomer(
+            @RequestParam("customer_id") String customer,
+            @RequestParam(value = "brand", required = false) Brand brand
+    ) {
+        return new DeactivationResultDto(creditCardService.removeByCustomer(customer, brand));
+    }
+
     @DeleteMapping("/credit-cards/{id}")
     private CreditCardDto remove(@PathVariable String id) {
         return CreditCardDtoMapper.map(creditCardService.remove(id));
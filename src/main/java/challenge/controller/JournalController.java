@@ -0,0 +1,26 @@
+package challenge.controller;
+
+import challenge.journal.CardChangeJournal;
+import challenge.journal.JournalPageDto;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@AllArgsConstructor
+public class JournalController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final CardChangeJournal cardChangeJournal;
+
+    /* limit is clamped like the page size */
+    @GetMapping("/credit-cards/journal")
+    public JournalPageDto read(
+            @RequestParam(value = "offset", defaultValue = "0") long offset,
+            @RequestParam(value = "limit", defaultValue = "100") int limit
+    ) {
+        return cardChangeJournal.read(offset, Math.clamp(limit, 1, MAX_LIMIT));
+    }
+}
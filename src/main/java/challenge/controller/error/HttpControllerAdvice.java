@@ -1,16 +1,21 @@
 package challenge.controller.error;
 
 import challenge.client.exception.InternalCallClientException;
+import challenge.exception.BadRequestException;
 import challenge.exception.BusinessException;
 import challenge.exception.NotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.util.stream.Collectors;
@@ -26,6 +31,8 @@ public class HttpControllerAdvice {
     private static final String EXTERNAL_CLIENT = "external_client";
 
     private static final String GENERIC_ERROR_MESSAGE = "An unexpected internal error happened";
+    private static final String MALFORMED_BODY_MESSAGE = "The request body is malformed";
+    private static final String CONCURRENT_MODIFICATION_MESSAGE = "The card was modified by another request, retry with the current version";
 
 
     @ExceptionHandler(NotFoundException.class)
@@ -48,6 +55,16 @@ public class HttpControllerAdvice {
         );
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorApiDto handle(OptimisticLockingFailureException ex) {
+        return new ErrorApiDto(
+                HttpStatus.CONFLICT.value(),
+                BUSINESS_RULE,
+                CONCURRENT_MODIFICATION_MESSAGE
+        );
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ErrorApiDto handle(MethodArgumentNotValidException ex) {
@@ -63,6 +80,28 @@ public class HttpControllerAdvice {
         );
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorApiDto handle(BadRequestException ex) {
+        return new ErrorApiDto(
+                HttpStatus.BAD_REQUEST.value(),
+                BAD_REQUEST,
+                ex.getMessage()
+        );
+    }
+
+    /* a streamed body that cannot even be opened, a malformed item inside it is reported in the batch result */
+    @ExceptionHandler({JsonProcessingException.class, RuntimeJsonMappingException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorApiDto handleMalformedBody(Exception ex) {
+        log.warn("Malformed request body: {}", ex.getMessage());
+        return new ErrorApiDto(
+                HttpStatus.BAD_REQUEST.value(),
+                BAD_REQUEST,
+                MALFORMED_BODY_MESSAGE
+        );
+    }
+
     @ExceptionHandler(MissingServletRequestParameterException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorApiDto handle(MissingServletRequestParameterException ex) {
@@ -85,6 +124,11 @@ public class HttpControllerAdvice {
         );
     }
 
+    /* the client went away, e.g. a closed change stream, there is no one to answer */
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handle(AsyncRequestNotUsableException ex) {
+        log.debug("Client disconnected: {}", ex.getMessage());
+    }
 
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
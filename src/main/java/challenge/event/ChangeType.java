@@ -0,0 +1,5 @@
+package challenge.event;
+
+public enum ChangeType {
+    CREATED, UPDATED, DEACTIVATED
+}
@@ -0,0 +1,11 @@
+package challenge.event;
+
+import challenge.model.dto.CreditCardDto;
+
+/* Published after a card is written, previous is null on creation */
+public record CreditCardChangedEvent(
+        ChangeType type,
+        CreditCardDto previous,
+        CreditCardDto current
+) {
+}
@@ -0,0 +1,11 @@
+package challenge.event;
+
+import challenge.model.dto.CreditCardDto;
+
+import java.util.List;
+
+/* Published once per committed chunk of a batch creation, instead of a CreditCardChangedEvent per card */
+public record CreditCardsCreatedEvent(
+        List<CreditCardDto> cards
+) {
+}
@@ -0,0 +1,11 @@
+package challenge.event;
+
+import challenge.model.enums.Brand;
+
+/* Published after a bulk deactivation, brand is null when every brand of the customer was deactivated */
+public record CustomerCardsDeactivatedEvent(
+        String customer,
+        Brand brand,
+        int deactivated
+) {
+}
@@ -0,0 +1,7 @@
+package challenge.exception;
+
+public class InvalidCursorException extends BadRequestException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package challenge.exception;
+
+public class InvalidJournalOffsetException extends BadRequestException {
+    public InvalidJournalOffsetException(String message) {
+        super(message);
+    }
+}
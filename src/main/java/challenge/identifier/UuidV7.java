@@ -0,0 +1,26 @@
+package challenge.identifier;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * RFC 9562 version 7 uuids: 48 bits of epoch millis, then random bits. Stored as BINARY(16) they sort by creation
+ * time, so inserts append to the right of the primary key index instead of splitting random pages.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class UuidV7 {
+
+    public static UUID generate() {
+        return generate(System.currentTimeMillis());
+    }
+
+    public static UUID generate(long epochMillis) {
+        var random = ThreadLocalRandom.current();
+        var mostSigBits = (epochMillis << 16) | 0x7000L | (random.nextInt() & 0x0FFFL);
+        var leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
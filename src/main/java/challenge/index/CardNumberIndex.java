@@ -0,0 +1,95 @@
+package challenge.index;
+
+import challenge.event.CreditCardChangedEvent;
+import challenge.event.CreditCardsCreatedEvent;
+import challenge.repository.CreditCardRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * In memory index of the registered card numbers, answers "surely absent" without going to the db.
+ * Numbers are only added: a number released by an update stays as a false positive that the db check resolves.
+ * Cards written by other instances are not seen here, the CARD_NUMBER unique index stays as the final check.
+ */
+@Slf4j
+@Component
+public class CardNumberIndex {
+
+    private final CreditCardRepository creditCardRepository;
+    private final LongHashSet numbers;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public CardNumberIndex(
+            CreditCardRepository creditCardRepository,
+            @Value("${index.card-numbers.expected-size:100000}") int expectedSize
+    ) {
+        this.creditCardRepository = creditCardRepository;
+        this.numbers = new LongHashSet(expectedSize);
+    }
+
+    /* until the index is loaded every number might exist */
+    public boolean mightContain(long number) {
+        if (!ready) {
+            return true;
+        }
+
+        lock.readLock().lock();
+        try {
+            return numbers.contains(number);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(long number) {
+        lock.writeLock().lock();
+        try {
+            numbers.add(number);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try (var stream = creditCardRepository.streamAllNumbers()) {
+            stream.forEach(this::add);
+        }
+        ready = true;
+        log.info("Card number index loaded: size=[{}]", size());
+    }
+
+    @EventListener
+    public void on(CreditCardChangedEvent event) {
+        add(event.current().number());
+    }
+
+    /* the lock is taken once for the chunk */
+    @EventListener
+    public void on(CreditCardsCreatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.cards().forEach(card -> numbers.add(card.number()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return numbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package challenge.index;
+
+import java.util.Arrays;
+
+/*
+ * Open addressing (linear probing) set of primitive longs, avoids boxing and entry objects.
+ * Not thread safe, callers must guard it. 0 is used as the empty slot marker and tracked apart.
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = 0L;
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private long[] slots;
+    private int size;
+    private boolean containsEmpty;
+
+    public LongHashSet(int expectedSize) {
+        /* capacity is kept at least twice the size, probes stay short */
+        this.slots = new long[capacityFor(expectedSize)];
+    }
+
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            var added = !containsEmpty;
+            containsEmpty = true;
+            return added;
+        }
+
+        var mask = slots.length - 1;
+        var index = hash(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        slots[index] = value;
+        if (++size * 2 > slots.length) {
+            resize(slots.length * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+
+        var mask = slots.length - 1;
+        var index = hash(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return containsEmpty ? size + 1 : size;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        size = 0;
+        containsEmpty = false;
+    }
+
+    private void resize(int capacity) {
+        var previous = slots;
+        slots = new long[capacity];
+        var mask = capacity - 1;
+
+        for (var value : previous) {
+            if (value != EMPTY) {
+                var index = hash(value) & mask;
+                while (slots[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = value;
+            }
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        var capacity = Integer.highestOneBit(Math.max(MINIMUM_CAPACITY, expectedSize * 2 - 1)) << 1;
+        return Math.max(MINIMUM_CAPACITY, capacity);
+    }
+
+    /* murmur3 finalizer, card numbers share long prefixes and need the bits spread */
+    private static int hash(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return (int) value;
+    }
+}
@@ -0,0 +1,297 @@
+package challenge.journal;
+
+import challenge.event.ChangeType;
+import challenge.event.CreditCardChangedEvent;
+import challenge.event.CreditCardsCreatedEvent;
+import challenge.event.CustomerCardsDeactivatedEvent;
+import challenge.exception.InvalidJournalOffsetException;
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/*
+ * Local append only journal of card changes, so consumers can follow them by offset instead of polling CREDIT_CARDS.
+ * Offsets are byte positions in the journal, which is split in memory mapped segment files named by their first offset.
+ * Appends are queued and a single writer thread copies whatever is waiting into the active segment and forces it once
+ * for the whole batch (group commit), then completes the appends with their offsets. Only the newest retained segments
+ * are kept, older ones are deleted when the journal rolls over.
+ */
+@Slf4j
+@Component
+public class CardChangeJournal {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int batchSize;
+    private final boolean fsync;
+    private final int retainedSegments;
+    private final Duration appendTimeout;
+    private final BlockingQueue<PendingAppend> queue;
+    private final ConcurrentNavigableMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    private final Thread writer;
+    /* end of the forced records, readers never go past it */
+    private volatile long committedOffset;
+    private volatile boolean running = true;
+
+    public CardChangeJournal(
+            @Value("${journal.directory:journal}") String directory,
+            @Value("${journal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${journal.batch-size:256}") int batchSize,
+            @Value("${journal.queue-capacity:8192}") int queueCapacity,
+            @Value("${journal.fsync:true}") boolean fsync,
+            @Value("${journal.retention.segments:16}") int retainedSegments,
+            @Value("${journal.append-timeout:5s}") Duration appendTimeout
+    ) throws IOException {
+        this.directory = Files.createDirectories(Path.of(directory));
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.batchSize = batchSize;
+        this.fsync = fsync;
+        this.retainedSegments = retainedSegments;
+        this.appendTimeout = appendTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        try (var files = Files.list(this.directory)) {
+            for (var file : files.filter(file -> file.getFileName().toString().endsWith(JournalSegment.SUFFIX)).toList()) {
+                var baseOffset = JournalSegment.baseOffset(file);
+                segments.put(baseOffset, JournalSegment.open(this.directory, baseOffset, this.segmentSize));
+            }
+        }
+
+        if (segments.isEmpty()) {
+            segments.put(0L, JournalSegment.open(this.directory, 0, this.segmentSize));
+        }
+
+        retain();
+        var active = segments.lastEntry().getValue();
+        active.recover();
+        committedOffset = active.endOffset();
+
+        writer = Thread.ofPlatform().name("card-change-journal").daemon().start(this::writeBatches);
+        log.info("Card change journal opened: directory=[{}] segments=[{}] offset=[{}]",
+                this.directory, segments.size(), committedOffset);
+    }
+
+    /* completes with the offset of the record once its batch is written (and forced when fsync is on) */
+    public CompletableFuture<Long> append(ChangeType type, String id, String customer, Brand brand, Status status) {
+        var payload = JournalCodec.encode(Instant.now(), type, id, customer, brand, status);
+        var pending = new PendingAppend(payload, JournalSegment.crc(payload), new CompletableFuture<>());
+
+        if (JournalSegment.HEADER_SIZE + payload.length > segmentSize) {
+            pending.result().completeExceptionally(new IllegalArgumentException("The record does not fit in a journal segment"));
+        } else if (!running) {
+            pending.result().completeExceptionally(new IllegalStateException("The journal is closed"));
+        } else {
+            try {
+                /* blocks when the writer is behind by a full queue */
+                queue.put(pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.result().completeExceptionally(e);
+            }
+        }
+
+        return pending.result();
+    }
+
+    public JournalPageDto read(long offset, int limit) {
+        var committed = committedOffset;
+        var first = segments.firstKey();
+
+        if (offset < first || offset > committed) {
+            throw new InvalidJournalOffsetException("The offset must be between " + first + " and " + committed);
+        }
+
+        var entries = new ArrayList<JournalEntry>(Math.min(limit, batchSize));
+        while (offset < committed && entries.size() < limit) {
+            /* a segment starts where the previous one ended, so the floor segment holds the offset unless it was deleted */
+            var floor = segments.floorEntry(offset);
+            if (floor == null) {
+                throw new InvalidJournalOffsetException("The offset " + offset + " is no longer retained");
+            }
+            var segment = floor.getValue();
+            var position = (int) (offset - segment.baseOffset());
+            var payload = segment.payload(position);
+
+            if (payload == null || JournalSegment.crc(payload) != segment.crc(position)) {
+                throw new InvalidJournalOffsetException("No journal record starts at offset " + offset);
+            }
+
+            var next = offset + JournalSegment.HEADER_SIZE + payload.remaining();
+            entries.add(JournalCodec.decode(offset, payload));
+            offset = next;
+        }
+
+        return new JournalPageDto(entries, offset);
+    }
+
+    public long getCommittedOffset() {
+        return committedOffset;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CreditCardChangedEvent event) {
+        var card = event.current();
+        await(append(event.type(), card.id(), card.customer(), card.brand(), card.status()));
+    }
+
+    /* every card is queued before waiting, so the whole chunk goes in the same forced batches */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CreditCardsCreatedEvent event) {
+        var appends = new CompletableFuture<?>[event.cards().size()];
+        for (var i = 0; i < appends.length; i++) {
+            var card = event.cards().get(i);
+            appends[i] = append(ChangeType.CREATED, card.id(), card.customer(), card.brand(), card.status());
+        }
+        await(CompletableFuture.allOf(appends));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CustomerCardsDeactivatedEvent event) {
+        await(append(ChangeType.DEACTIVATED, null, event.customer(), event.brand(), Status.INACTIVE));
+    }
+
+    /*
+     * the change is in the journal before the response goes out; the db already committed it, so a failure is only logged.
+     * The wait is bounded, a stalled writer must not hold every write request
+     */
+    private void await(CompletableFuture<?> append) {
+        try {
+            append.get(appendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            log.error("Card change journal append failed", e.getCause());
+        } catch (TimeoutException e) {
+            log.error("Card change journal append not written after {}", appendTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBatches() {
+        var batch = new ArrayList<PendingAppend>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Card change journal batch failed", e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingAppend> batch) {
+        var segment = segments.lastEntry().getValue();
+        var from = segment.position();
+        var offsets = new long[batch.size()];
+        var written = 0;
+        IOException failure = null;
+
+        try {
+            for (; written < batch.size(); written++) {
+                var pending = batch.get(written);
+                if (!segment.fits(pending.payload().length)) {
+                    segment = roll(segment, from);
+                    from = 0;
+                }
+                offsets[written] = segment.append(pending.payload(), pending.crc());
+            }
+        } catch (IOException e) {
+            log.error("Card change journal segment roll failed", e);
+            failure = e;
+        }
+
+        if (fsync) {
+            segment.force(from);
+        }
+        committedOffset = segment.endOffset();
+
+        for (var i = 0; i < batch.size(); i++) {
+            if (i < written) {
+                batch.get(i).result().complete(offsets[i]);
+            } else {
+                batch.get(i).result().completeExceptionally(failure);
+            }
+        }
+    }
+
+    private JournalSegment roll(JournalSegment segment, int from) throws IOException {
+        if (fsync) {
+            segment.force(from);
+        }
+
+        var next = JournalSegment.open(directory, segment.endOffset(), segmentSize);
+        segments.put(next.baseOffset(), next);
+        retain();
+        return next;
+    }
+
+    /* the oldest segments over the retention are deleted, a reader still on one gets an offset error next time */
+    private void retain() {
+        while (retainedSegments > 0 && segments.size() > retainedSegments) {
+            var oldest = segments.pollFirstEntry().getValue();
+            try {
+                oldest.delete();
+                log.info("Card change journal segment deleted: offset=[{}]", oldest.baseOffset());
+            } catch (IOException e) {
+                log.warn("Card change journal segment delete failed: offset=[{}]", oldest.baseOffset(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join();
+
+        PendingAppend pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new IllegalStateException("The journal is closed"));
+        }
+
+        for (var segment : segments.values()) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                log.warn("Card change journal segment close failed: offset=[{}]", segment.baseOffset(), e);
+            }
+        }
+    }
+
+    private record PendingAppend(byte[] payload, int crc, CompletableFuture<Long> result) {
+    }
+}
@@ -0,0 +1,66 @@
+package challenge.journal;
+
+import challenge.event.ChangeType;
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/*
+ * Payload of a journal record:
+ * [timestamp millis:8][type:1][status:1][brand:1][has id:1][id msb:8][id lsb:8][customer utf-8:rest]
+ * missing enums are written as -1 and the id longs only when present.
+ */
+final class JournalCodec {
+
+    private static final byte NONE = -1;
+    private static final int FIXED_SIZE = Long.BYTES + 4;
+
+    private static final ChangeType[] TYPES = ChangeType.values();
+    private static final Status[] STATUSES = Status.values();
+    private static final Brand[] BRANDS = Brand.values();
+
+    private JournalCodec() {
+    }
+
+    static byte[] encode(Instant timestamp, ChangeType type, String id, String customer, Brand brand, Status status) {
+        var customerBytes = customer.getBytes(StandardCharsets.UTF_8);
+        var buffer = ByteBuffer.allocate(FIXED_SIZE + (id != null ? 2 * Long.BYTES : 0) + customerBytes.length)
+                .putLong(timestamp.toEpochMilli())
+                .put((byte) type.ordinal())
+                .put(status != null ? (byte) status.ordinal() : NONE)
+                .put(brand != null ? (byte) brand.ordinal() : NONE)
+                .put(id != null ? (byte) 1 : 0);
+
+        if (id != null) {
+            var uuid = UUID.fromString(id);
+            buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+        }
+
+        return buffer.put(customerBytes).array();
+    }
+
+    static JournalEntry decode(long offset, ByteBuffer payload) {
+        var timestamp = Instant.ofEpochMilli(payload.getLong());
+        var type = TYPES[payload.get()];
+        var status = payload.get();
+        var brand = payload.get();
+        var id = payload.get() == 1 ? new UUID(payload.getLong(), payload.getLong()).toString() : null;
+
+        var customer = new byte[payload.remaining()];
+        payload.get(customer);
+
+        return new JournalEntry(
+                offset,
+                timestamp,
+                type,
+                id,
+                new String(customer, StandardCharsets.UTF_8),
+                brand == NONE ? null : BRANDS[brand],
+                status == NONE ? null : STATUSES[status]
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package challenge.journal;
+
+import challenge.event.ChangeType;
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+
+import java.time.Instant;
+
+/* id is null for bulk deactivations, they apply to every card of the customer (and brand when present) */
+public record JournalEntry(
+        long offset,
+        Instant timestamp,
+        ChangeType type,
+        String id,
+        String customer,
+        Brand brand,
+        Status status
+) {
+}
@@ -0,0 +1,14 @@
+package challenge.journal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record JournalPageDto(
+        List<JournalEntry> entries,
+
+        /* offset to read from on the next call, equal to the requested one when there is nothing new */
+        @JsonProperty("next_offset")
+        long nextOffset
+) {
+}
@@ -0,0 +1,148 @@
+package challenge.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/*
+ * A pre-sized journal file mapped in memory. Records are [payload length:4][crc32c:4][payload], files start zero filled
+ * so a zero length marks the end of the written part. Only the journal writer thread appends, readers use absolute
+ * gets below the committed offset so they never see a half written record.
+ */
+final class JournalSegment implements Closeable {
+
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+    static final String SUFFIX = ".journal";
+
+    private final long baseOffset;
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int position;
+
+    private JournalSegment(long baseOffset, Path file, FileChannel channel, MappedByteBuffer buffer) {
+        this.baseOffset = baseOffset;
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /* existing files keep their size, a new one is created with the given size */
+    static JournalSegment open(Path directory, long baseOffset, int size) throws IOException {
+        var file = directory.resolve(fileName(baseOffset));
+        var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            var mappedSize = channel.size() > 0 ? channel.size() : size;
+            return new JournalSegment(baseOffset, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static String fileName(long baseOffset) {
+        return String.format("%020d%s", baseOffset, SUFFIX);
+    }
+
+    static long baseOffset(Path file) {
+        var name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /* finds the end of the valid records, a torn batch from a crash is cut at its first bad record and zeroed */
+    void recover() {
+        position = 0;
+        while (true) {
+            var payload = payload(position);
+            if (payload == null || crc(payload) != buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            position += HEADER_SIZE + payload.remaining();
+        }
+
+        for (var i = position; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    boolean fits(int payloadSize) {
+        return (long) position + HEADER_SIZE + payloadSize <= buffer.capacity();
+    }
+
+    /* returns the offset of the record, fits must be checked before */
+    long append(byte[] payload, int crc) {
+        var offset = endOffset();
+        buffer.putInt(position + Integer.BYTES, crc);
+        buffer.put(position + HEADER_SIZE, payload);
+        /* length last, a record with a length is complete once the batch is forced */
+        buffer.putInt(position, payload.length);
+        position += HEADER_SIZE + payload.length;
+        return offset;
+    }
+
+    void force(int from) {
+        buffer.force(from, position - from);
+    }
+
+    /* payload of the record at position, null at the end of the written part; the crc is checked by the caller */
+    ByteBuffer payload(int at) {
+        if (at + HEADER_SIZE > buffer.capacity()) {
+            return null;
+        }
+
+        var length = buffer.getInt(at);
+        if (length <= 0 || length > buffer.capacity() - at - HEADER_SIZE) {
+            return null;
+        }
+
+        return buffer.slice(at + HEADER_SIZE, length);
+    }
+
+    int crc(int at) {
+        return buffer.getInt(at + Integer.BYTES);
+    }
+
+    static int crc(ByteBuffer payload) {
+        var crc = new CRC32C();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    static int crc(byte[] payload) {
+        var crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    long baseOffset() {
+        return baseOffset;
+    }
+
+    int position() {
+        return position;
+    }
+
+    long endOffset() {
+        return baseOffset + position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /* the mapping stays readable until it is collected, a reader in the middle of a record can still finish it */
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+}
@@ -10,7 +10,7 @@ public class CreditCardDtoMapper {
 
     public static CreditCardDto map(CreditCard creditCard) {
         return new CreditCardDto(
-                creditCard.getId(),
+                creditCard.getId().toString(),
                 creditCard.getCustomer(),
                 creditCard.getNumber(),
                 creditCard.getBrand(),
@@ -1,12 +1,13 @@
 package challenge.mapper;
 
+import challenge.identifier.UuidV7;
 import challenge.model.dto.CreditCardDto;
 import challenge.model.entity.CreditCard;
+import challenge.model.enums.Status;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class CreditCardMapper {
@@ -18,4 +19,15 @@ public class CreditCardMapper {
         card.setCustomer(cardDto.customer());
         return card;
     }
+
+    public static CreditCard mapNew(CreditCardDto cardDto) {
+        var card = map(cardDto);
+        card.setId(UuidV7.generate());
+        card.setStatus(Status.ACTIVE);
+        /* a new card is a change too, the change feed goes by the last modified date */
+        var now = LocalDateTime.now();
+        card.setCreatedDate(now);
+        card.setLastModifiedDate(now);
+        return card;
+    }
 }
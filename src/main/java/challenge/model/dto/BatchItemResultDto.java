@@ -0,0 +1,13 @@
+package challenge.model.dto;
+
+public record BatchItemResultDto(
+        int index,
+        Long number,
+
+        /* id of the created card, null when rejected */
+        String id,
+
+        /* rejection reason, null when created */
+        String error
+) {
+}
@@ -0,0 +1,10 @@
+package challenge.model.dto;
+
+import java.util.List;
+
+public record BatchResultDto(
+        int created,
+        int rejected,
+        List<BatchItemResultDto> items
+) {
+}
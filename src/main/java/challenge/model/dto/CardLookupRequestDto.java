@@ -0,0 +1,13 @@
+package challenge.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record CardLookupRequestDto(
+        @NotEmpty(message = "ids is mandatory")
+        @Size(message = "ids has more than 1000 items", max = 1000)
+        List<String> ids
+) {
+}
@@ -0,0 +1,12 @@
+package challenge.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/* found cards in the order they were asked for, missing ids as they were sent */
+public record CardLookupResultDto(
+        List<CreditCardDto> cards,
+        @JsonProperty("missing_ids") List<String> missingIds
+) {
+}
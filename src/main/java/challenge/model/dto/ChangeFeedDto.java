@@ -0,0 +1,16 @@
+package challenge.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record ChangeFeedDto(
+        List<CreditCardChangeDto> content,
+
+        /* position after the last change, sent as since on the next call; the given one when there are no changes */
+        String watermark,
+
+        @JsonProperty("has_more")
+        boolean hasMore
+) {
+}
@@ -0,0 +1,17 @@
+package challenge.model.dto;
+
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+
+import java.time.LocalDateTime;
+
+public record CreditCardChangeDto(
+        String id,
+        String customer,
+        Long number,
+        Brand brand,
+        Status status,
+        LocalDateTime createdDate,
+        LocalDateTime lastModifiedDate
+) {
+}
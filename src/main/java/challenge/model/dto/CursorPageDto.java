@@ -0,0 +1,15 @@
+package challenge.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record CursorPageDto<T>(
+        List<T> content,
+        int size,
+
+        /* null when there are no more pages */
+        @JsonProperty("next_cursor")
+        String nextCursor
+) {
+}
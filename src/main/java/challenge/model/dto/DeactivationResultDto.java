@@ -0,0 +1,6 @@
+package challenge.model.dto;
+
+public record DeactivationResultDto(
+        int deactivated
+) {
+}
@@ -0,0 +1,28 @@
+package challenge.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/* list envelope without the pageable and sort objects PageImpl writes on every response, slices leave the totals out */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PageDto<T>(
+        List<T> content,
+        int number,
+        int size,
+        Long totalElements,
+        Integer totalPages,
+        boolean last
+) {
+
+    public static <T> PageDto<T> of(Slice<T> slice) {
+        if (slice instanceof Page<T> page) {
+            return new PageDto<>(page.getContent(), page.getNumber(), page.getSize(),
+                    page.getTotalElements(), page.getTotalPages(), page.isLast());
+        }
+
+        return new PageDto<>(slice.getContent(), slice.getNumber(), slice.getSize(), null, null, slice.isLast());
+    }
+}
@@ -0,0 +1,8 @@
+package challenge.model.dto;
+
+/* card with the version of its row, the version is the etag of the card */
+public record VersionedCreditCardDto(
+        CreditCardDto card,
+        long version
+) {
+}
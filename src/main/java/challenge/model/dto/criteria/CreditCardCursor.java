@@ -0,0 +1,27 @@
+package challenge.model.dto.criteria;
+
+import challenge.model.dto.CreditCardDto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/* Posicion de keyset (CREATED_DATE, ID), se expone al cliente como token opaco */
+public record CreditCardCursor(
+        LocalDateTime createdDate,
+        UUID id
+) {
+
+    private static final String INVALID_CURSOR_ERROR = "The given cursor is not valid";
+
+    public static CreditCardCursor of(CreditCardDto card) {
+        return new CreditCardCursor(card.createdDate(), UUID.fromString(card.id()));
+    }
+
+    public static CreditCardCursor decode(String token) {
+        return KeysetToken.decode(token, CreditCardCursor::new, INVALID_CURSOR_ERROR);
+    }
+
+    public String encode() {
+        return KeysetToken.encode(createdDate, id);
+    }
+}
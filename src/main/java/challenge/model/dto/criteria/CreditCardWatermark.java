@@ -0,0 +1,27 @@
+package challenge.model.dto.criteria;
+
+import challenge.model.dto.CreditCardChangeDto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/* Position in the change feed (LAST_MODIFIED_DATE, ID), exposed as an opaque token like the cursor */
+public record CreditCardWatermark(
+        LocalDateTime lastModifiedDate,
+        UUID id
+) {
+
+    private static final String INVALID_WATERMARK_ERROR = "The given watermark is not valid";
+
+    public static CreditCardWatermark of(CreditCardChangeDto card) {
+        return new CreditCardWatermark(card.lastModifiedDate(), UUID.fromString(card.id()));
+    }
+
+    public static CreditCardWatermark decode(String token) {
+        return KeysetToken.decode(token, CreditCardWatermark::new, INVALID_WATERMARK_ERROR);
+    }
+
+    public String encode() {
+        return KeysetToken.encode(lastModifiedDate, id);
+    }
+}
@@ -0,0 +1,40 @@
+package challenge.model.dto.criteria;
+
+import challenge.exception.InvalidCursorException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/* (date, id) keyset position as an opaque url safe token, shared by the page cursor and the change feed watermark */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class KeysetToken {
+
+    private static final char SEPARATOR = '|';
+
+    static String encode(LocalDateTime date, UUID id) {
+        var value = date.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static <T> T decode(String token, BiFunction<LocalDateTime, UUID, T> position, String error) {
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var separator = value.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == value.length() - 1) {
+                throw new InvalidCursorException(error);
+            }
+            return position.apply(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidCursorException(error);
+        }
+    }
+}
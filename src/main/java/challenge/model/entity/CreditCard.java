@@ -9,9 +9,14 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 @Entity
@@ -19,13 +24,19 @@ import java.time.LocalDateTime;
         name = "CREDIT_CARDS",
         indexes = {
                 @Index(columnList = "CARD_NUMBER", unique = true),
-                @Index(columnList = "CUSTOMER_ID")
+                /* also serves the plain CUSTOMER_ID lookups and the keyset pagination order */
+                @Index(columnList = "CUSTOMER_ID, STATUS, CREATED_DATE, ID"),
+                /* order of the change feed */
+                @Index(columnList = "LAST_MODIFIED_DATE, ID")
         }
 )
 public class CreditCard {
 
+    /* uuid v7 as 16 raw bytes, the api keeps exposing the usual string form */
     @Id
-    private String id;
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "ID", length = 16)
+    private UUID id;
 
     /* si bien es unique no se utiliza como id porque es dato sensible, deberia almacenarse encrypted */
     @Column(name = "CARD_NUMBER")
@@ -49,4 +60,10 @@ public class CreditCard {
     @Column(name = "LAST_MODIFIED_DATE")
     private LocalDateTime lastModifiedDate;
 
+    /* optimistic locking; a null version also tells spring data the card is new, so save persists without a select */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "VERSION")
+    private Long version;
+
 }
@@ -0,0 +1,14 @@
+package challenge.repository;
+
+import java.time.LocalDateTime;
+
+/* every change of a customer's cards moves at least one of these */
+public interface CardsVersion {
+
+    long getTotal();
+
+    Long getVersions();
+
+    LocalDateTime getLastModifiedDate();
+
+}
@@ -1,14 +1,74 @@
 package challenge.repository;
 
 import challenge.model.entity.CreditCard;
+import challenge.model.enums.Brand;
 import challenge.model.enums.Status;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface CreditCardRepository extends CrudRepository<CreditCard, String>, JpaSpecificationExecutor<CreditCard> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface CreditCardRepository extends CrudRepository<CreditCard, UUID>, JpaSpecificationExecutor<CreditCard>, CreditCardRepositoryCustom {
 
     Optional<CreditCard> findByNumber(Long number);
 
+    boolean existsByNumber(Long number);
+
+    /* same as JpaRepository, the flush runs inside the call so constraint violations surface here */
+    <S extends CreditCard> S saveAndFlush(S card);
+
+    /* single statement soft delete, matches no rows when the card is already inactive */
+    @Transactional
+    @Modifying
+    @Query("update CreditCard c set c.status = challenge.model.enums.Status.INACTIVE, c.lastModifiedDate = :now, " +
+            "c.version = c.version + 1 where c.id = :id and c.status = challenge.model.enums.Status.ACTIVE")
+    int deactivate(UUID id, LocalDateTime now);
+
+    /* set based version of deactivate for every active card of a customer, optionally of one brand */
+    @Transactional
+    @Modifying
+    @Query("update CreditCard c set c.status = challenge.model.enums.Status.INACTIVE, c.lastModifiedDate = :now, " +
+            "c.version = c.version + 1 where c.customer = :customer and c.status = challenge.model.enums.Status.ACTIVE " +
+            "and (:brand is null or c.brand = :brand)")
+    int deactivateByCustomer(String customer, Brand brand, LocalDateTime now);
+
+    @Query("select c.number from CreditCard c where c.number in :numbers")
+    Set<Long> findExistingNumbers(Collection<Long> numbers);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from CreditCard c where c.customer = :customer order by c.createdDate, c.id")
+    Stream<CreditCard> streamByCustomer(String customer);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select c.number from CreditCard c")
+    Stream<Long> streamAllNumbers();
+
+    @Query("select c.status as status, count(c) as total from CreditCard c where c.customer = :customer group by c.status")
+    List<StatusCount> countByStatus(String customer);
+
+    /* decides a conditional get without loading the card */
+    @Query("select c.version from CreditCard c where c.id = :id")
+    Optional<Long> findVersionById(UUID id);
+
+    @Query("select count(c) as total, sum(c.version) as versions, max(c.lastModifiedDate) as lastModifiedDate " +
+            "from CreditCard c where c.customer = :customer")
+    CardsVersion findCardsVersion(String customer);
+
 }
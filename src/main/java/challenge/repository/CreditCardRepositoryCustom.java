@@ -0,0 +1,36 @@
+package challenge.repository;
+
+import challenge.model.dto.CreditCardChangeDto;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.VersionedCreditCardDto;
+import challenge.model.entity.CreditCard;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CreditCardRepositoryCustom {
+
+    Optional<VersionedCreditCardDto> findVersionedDtoById(UUID id);
+
+    /* a single IN query, callers keep the number of ids bounded */
+    List<VersionedCreditCardDto> findVersionedDtosByIds(Collection<UUID> ids);
+
+    /* same as findAll(spec, pageable) but without the count query, selected straight into dtos */
+    Slice<CreditCardDto> findSlice(Specification<CreditCard> specification, Pageable pageable);
+
+    /* first limit dtos in the given order */
+    List<CreditCardDto> findSorted(Specification<CreditCard> specification, Sort sort, int limit);
+
+    /* first limit changes in the given order, with the last modified date the feed pages by */
+    List<CreditCardChangeDto> findChanges(Specification<CreditCard> specification, Sort sort, int limit);
+
+    /* persists new cards in jdbc batches dated now, must run inside a transaction */
+    void insertAll(List<CreditCard> cards);
+
+}
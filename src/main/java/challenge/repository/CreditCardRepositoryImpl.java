@@ -0,0 +1,163 @@
+package challenge.repository;
+
+import challenge.model.dto.CreditCardChangeDto;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.VersionedCreditCardDto;
+import challenge.model.entity.CreditCard;
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public class CreditCardRepositoryImpl implements CreditCardRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<VersionedCreditCardDto> findVersionedDtoById(UUID id) {
+        Specification<CreditCard> byId = (root, query, builder) -> builder.equal(root.get("id"), id);
+        return selectDtos(byId, Sort.unsorted())
+                .getResultStream()
+                .findFirst()
+                .map(CreditCardRepositoryImpl::toVersionedDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VersionedCreditCardDto> findVersionedDtosByIds(Collection<UUID> ids) {
+        Specification<CreditCard> byIds = (root, query, builder) -> root.get("id").in(ids);
+        return selectDtos(byIds, Sort.unsorted())
+                .getResultStream()
+                .map(CreditCardRepositoryImpl::toVersionedDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<CreditCardDto> findSlice(Specification<CreditCard> specification, Pageable pageable) {
+        var typedQuery = selectDtos(specification, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultStream().map(CreditCardRepositoryImpl::toDto).toList(), pageable, false);
+        }
+
+        /* one extra row tells if there is a next slice */
+        var cards = typedQuery
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultStream()
+                .map(CreditCardRepositoryImpl::toDto)
+                .toList();
+
+        var hasNext = cards.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? cards.subList(0, pageable.getPageSize()) : cards, pageable, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CreditCardDto> findSorted(Specification<CreditCard> specification, Sort sort, int limit) {
+        return selectDtos(specification, sort)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(CreditCardRepositoryImpl::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CreditCardChangeDto> findChanges(Specification<CreditCard> specification, Sort sort, int limit) {
+        var builder = entityManager.getCriteriaBuilder();
+        var query = builder.createTupleQuery();
+        var root = query.from(CreditCard.class);
+        query.multiselect(
+                root.get("id"),
+                root.get("customer"),
+                root.get("number"),
+                root.get("brand"),
+                root.get("status"),
+                root.get("createdDate"),
+                root.get("lastModifiedDate")
+        );
+        query.where(specification.toPredicate(root, query, builder));
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(row -> new CreditCardChangeDto(
+                        row.get(0, UUID.class).toString(),
+                        row.get(1, String.class),
+                        row.get(2, Long.class),
+                        row.get(3, Brand.class),
+                        row.get(4, Status.class),
+                        row.get(5, LocalDateTime.class),
+                        row.get(6, LocalDateTime.class)
+                ))
+                .toList();
+    }
+
+    /* scalar projection: rows go straight into dtos, no managed entities nor dirty checking snapshots */
+    private TypedQuery<Tuple> selectDtos(Specification<CreditCard> specification, Sort sort) {
+        var builder = entityManager.getCriteriaBuilder();
+        var query = builder.createTupleQuery();
+        var root = query.from(CreditCard.class);
+        query.multiselect(
+                root.get("id"),
+                root.get("customer"),
+                root.get("number"),
+                root.get("brand"),
+                root.get("status"),
+                root.get("createdDate"),
+                root.get("version")
+        );
+        query.where(specification.toPredicate(root, query, builder));
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        return entityManager.createQuery(query);
+    }
+
+    /* the binary id is selected as UUID, the dto keeps the string form */
+    private static CreditCardDto toDto(Tuple row) {
+        return new CreditCardDto(
+                row.get(0, UUID.class).toString(),
+                row.get(1, String.class),
+                row.get(2, Long.class),
+                row.get(3, Brand.class),
+                row.get(4, Status.class),
+                row.get(5, LocalDateTime.class)
+        );
+    }
+
+    private static VersionedCreditCardDto toVersionedDto(Tuple row) {
+        return new VersionedCreditCardDto(toDto(row), row.get(6, Long.class));
+    }
+
+    @Override
+    public void insertAll(List<CreditCard> cards) {
+        /* persist instead of save: the ids are assigned, save would run a select per card through merge */
+        /* dated here and not when read from the request, a date older than the feed lag at commit would be skipped */
+        var now = LocalDateTime.now();
+        for (var card : cards) {
+            card.setCreatedDate(now);
+            card.setLastModifiedDate(now);
+            entityManager.persist(card);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,11 @@
+package challenge.repository;
+
+import challenge.model.enums.Status;
+
+public interface StatusCount {
+
+    Status getStatus();
+
+    long getTotal();
+
+}
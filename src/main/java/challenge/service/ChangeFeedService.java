@@ -0,0 +1,181 @@
+package challenge.service;
+
+import challenge.event.CreditCardChangedEvent;
+import challenge.event.CreditCardsCreatedEvent;
+import challenge.event.CustomerCardsDeactivatedEvent;
+import challenge.model.dto.ChangeFeedDto;
+import challenge.model.dto.criteria.CreditCardWatermark;
+import challenge.repository.CreditCardRepository;
+import challenge.specification.CreditCardSpecification;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * "What changed since" over the (LAST_MODIFIED_DATE, ID) order. The dates are taken by the application before the
+ * commit, so changes younger than the lag are held back: a slower transaction could still commit an older date behind them.
+ * Stream subscribers are woken up by the change events and read the same feed from their own watermark, so a stream
+ * and a polling client see the same changes in the same order. The events are only those of this instance, so the
+ * subscribers are also polled every poll interval to pick up the changes committed by other instances.
+ */
+@Slf4j
+@Service
+public class ChangeFeedService {
+
+    private static final String CHANGE_EVENT = "change";
+
+    private final CreditCardRepository creditCardRepository;
+    private final Duration lag;
+    private final Duration streamTimeout;
+    private final int streamBatchSize;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    /* one thread pushes to every subscriber, a slow client delays the others but never a request thread */
+    private final ScheduledExecutorService dispatcher =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("change-feed").daemon().factory());
+    private final AtomicBoolean pushScheduled = new AtomicBoolean();
+
+    public ChangeFeedService(
+            CreditCardRepository creditCardRepository,
+            @Value("${changes.lag:1s}") Duration lag,
+            @Value("${changes.stream.timeout:30m}") Duration streamTimeout,
+            @Value("${changes.stream.batch-size:100}") int streamBatchSize,
+            @Value("${changes.stream.poll-interval:5s}") Duration pollInterval
+    ) {
+        this.creditCardRepository = creditCardRepository;
+        this.lag = lag;
+        this.streamTimeout = streamTimeout;
+        this.streamBatchSize = streamBatchSize;
+        dispatcher.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public ChangeFeedDto getChanges(String since, int size) {
+        var watermark = since == null || since.isEmpty() ? null : CreditCardWatermark.decode(since);
+        var specification = CreditCardSpecification.changes(watermark, LocalDateTime.now().minus(lag));
+
+        /* one extra row tells if there are more changes */
+        var changes = creditCardRepository.findChanges(specification, CreditCardSpecification.CHANGES_SORT, size + 1);
+
+        if (changes.isEmpty()) {
+            return new ChangeFeedDto(changes, watermark == null ? null : since, false);
+        }
+
+        var hasMore = changes.size() > size;
+        var content = hasMore ? changes.subList(0, size) : changes;
+        return new ChangeFeedDto(content, CreditCardWatermark.of(content.get(content.size() - 1)).encode(), hasMore);
+    }
+
+    /* sends the changes after since and then every new one, each event id is the watermark to resume from */
+    public SseEmitter subscribe(String since) {
+        if (since != null && !since.isEmpty()) {
+            CreditCardWatermark.decode(since);
+        }
+
+        var subscriber = new Subscriber(new SseEmitter(streamTimeout.toMillis()), since);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(ex -> subscribers.remove(subscriber));
+
+        /* a first comment sends the response headers, otherwise they wait for the first change */
+        try {
+            subscriber.emitter.send(SseEmitter.event().comment(CHANGE_EVENT));
+        } catch (IOException ex) {
+            disconnected(subscriber, ex);
+            return subscriber.emitter;
+        }
+
+        subscribers.add(subscriber);
+        dispatcher.execute(() -> push(subscriber));
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CreditCardChangedEvent event) {
+        schedulePush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CreditCardsCreatedEvent event) {
+        schedulePush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CustomerCardsDeactivatedEvent event) {
+        schedulePush();
+    }
+
+    /* a burst of changes is pushed at once, when the first of them is older than the lag */
+    private void schedulePush() {
+        if (!subscribers.isEmpty() && pushScheduled.compareAndSet(false, true)) {
+            dispatcher.schedule(this::pushAll, lag.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void pushAll() {
+        pushScheduled.set(false);
+        subscribers.forEach(this::push);
+    }
+
+    private void poll() {
+        subscribers.forEach(this::push);
+    }
+
+    private void push(Subscriber subscriber) {
+        try {
+            ChangeFeedDto changes;
+            do {
+                changes = getChanges(subscriber.watermark, streamBatchSize);
+                for (var card : changes.content()) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(CreditCardWatermark.of(card).encode())
+                            .name(CHANGE_EVENT)
+                            .data(card));
+                }
+                subscriber.watermark = changes.watermark();
+            } while (changes.hasMore());
+        } catch (IOException ex) {
+            disconnected(subscriber, ex);
+        } catch (RuntimeException ex) {
+            log.warn("Change stream failed", ex);
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(ex);
+        }
+    }
+
+    /* the client went away, completing with an error would only dispatch it to the container and log it there */
+    private void disconnected(Subscriber subscriber, IOException ex) {
+        log.debug("Change stream closed: {}", ex.getMessage());
+        subscribers.remove(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    @PreDestroy
+    public void close() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        /* only read and written by the dispatcher thread */
+        private String watermark;
+
+        private Subscriber(SseEmitter emitter, String watermark) {
+            this.emitter = emitter;
+            this.watermark = watermark;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package challenge.service;
+
+import challenge.event.CreditCardsCreatedEvent;
+import challenge.index.LongHashSet;
+import challenge.mapper.CreditCardDtoMapper;
+import challenge.mapper.CreditCardMapper;
+import challenge.model.dto.BatchItemResultDto;
+import challenge.model.dto.BatchResultDto;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.entity.CreditCard;
+import challenge.repository.CreditCardRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class CreditCardBatchService {
+
+    private static final String CARD_EXIST_ERROR = "There is already a registered card with the given number";
+    private static final String CARD_REPEATED_ERROR = "The number is repeated in the batch";
+    private static final String EMPTY_ITEM_ERROR = "item is empty";
+    private static final String MALFORMED_ITEM_ERROR = "item is malformed, the items after it were not read";
+
+    private final CreditCardRepository creditCardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public CreditCardBatchService(
+            CreditCardRepository creditCardRepository,
+            TransactionTemplate transactionTemplate,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${batch.credit-cards.chunk-size:500}") int chunkSize
+    ) {
+        this.creditCardRepository = creditCardRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /* requests are consumed as they come, only one chunk of cards is kept in memory */
+    public BatchResultDto create(Iterator<CreditCardDto> requests) {
+        var items = new ArrayList<BatchItemResultDto>();
+        var numbers = new LongHashSet(chunkSize);
+        var chunk = new ArrayList<PendingCard>(chunkSize);
+        var index = 0;
+
+        while (true) {
+            CreditCardDto request;
+            try {
+                if (!requests.hasNext()) {
+                    break;
+                }
+                request = requests.next();
+            } catch (RuntimeException ex) {
+                /* the reader cannot go on after a malformed item, the cards read before it are still processed */
+                log.warn("Malformed card batch item {}: {}", index, ex.getMessage());
+                items.add(rejected(index, (CreditCardDto) null, MALFORMED_ITEM_ERROR));
+                break;
+            }
+
+            var error = validate(request);
+
+            if (error != null) {
+                items.add(rejected(index, request, error));
+            } else if (!numbers.add(request.number())) {
+                items.add(rejected(index, request, CARD_REPEATED_ERROR));
+            } else {
+                chunk.add(new PendingCard(index, CreditCardMapper.mapNew(request)));
+            }
+
+            if (chunk.size() == chunkSize) {
+                insert(chunk, items);
+                chunk.clear();
+            }
+            index++;
+        }
+
+        if (!chunk.isEmpty()) {
+            insert(chunk, items);
+        }
+
+        items.sort(Comparator.comparingInt(BatchItemResultDto::index));
+        var created = (int) items.stream().filter(item -> item.error() == null).count();
+        log.info("Card batch processed: created=[{}] rejected=[{}]", created, items.size() - created);
+        return new BatchResultDto(created, items.size() - created, items);
+    }
+
+    private void insert(List<PendingCard> chunk, List<BatchItemResultDto> items) {
+        /* one IN query per chunk instead of a lookup per card */
+        var existing = creditCardRepository.findExistingNumbers(chunk.stream().map(it -> it.card().getNumber()).toList());
+
+        var pending = new ArrayList<PendingCard>(chunk.size());
+        for (var item : chunk) {
+            if (existing.contains(item.card().getNumber())) {
+                items.add(rejected(item.index(), item.card(), CARD_EXIST_ERROR));
+            } else {
+                pending.add(item);
+            }
+        }
+
+        var created = new ArrayList<CreditCardDto>(pending.size());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    creditCardRepository.insertAll(pending.stream().map(PendingCard::card).toList()));
+            pending.forEach(item -> items.add(created(item, created)));
+        } catch (DataIntegrityViolationException ex) {
+            /* a number was registered after the check, the chunk is retried card by card to find it */
+            pending.forEach(item -> items.add(insertOne(item, created)));
+        }
+
+        /* one event for the chunk, so its journal entries are forced together and not one by one */
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(new CreditCardsCreatedEvent(created));
+        }
+    }
+
+    private BatchItemResultDto insertOne(PendingCard item, List<CreditCardDto> created) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> creditCardRepository.insertAll(List.of(item.card())));
+            return created(item, created);
+        } catch (DataIntegrityViolationException ex) {
+            return rejected(item.index(), item.card(), CARD_EXIST_ERROR);
+        }
+    }
+
+    private static BatchItemResultDto created(PendingCard item, List<CreditCardDto> created) {
+        var card = CreditCardDtoMapper.map(item.card());
+        created.add(card);
+        return new BatchItemResultDto(item.index(), card.number(), card.id(), null);
+    }
+
+    private String validate(CreditCardDto request) {
+        if (request == null) {
+            return EMPTY_ITEM_ERROR;
+        }
+
+        var violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(" - "));
+    }
+
+    private static BatchItemResultDto rejected(int index, CreditCardDto request, String error) {
+        return new BatchItemResultDto(index, request == null ? null : request.number(), null, error);
+    }
+
+    private static BatchItemResultDto rejected(int index, CreditCard card, String error) {
+        return new BatchItemResultDto(index, card.getNumber(), null, error);
+    }
+
+    private record PendingCard(int index, CreditCard card) {
+    }
+}
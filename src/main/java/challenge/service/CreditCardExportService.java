@@ -0,0 +1,96 @@
+package challenge.service;
+
+import challenge.mapper.CreditCardDtoMapper;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.entity.CreditCard;
+import challenge.model.enums.ExportFormat;
+import challenge.repository.CreditCardRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/* Writes the cards of a customer as they are read, heap use doesn't depend on how many cards there are */
+@Slf4j
+@Service
+public class CreditCardExportService {
+
+    private static final String CSV_HEADER = "id,customer,number,brand,status,createdDate\n";
+
+    private final CreditCardRepository creditCardRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+
+    public CreditCardExportService(CreditCardRepository creditCardRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.creditCardRepository = creditCardRepository;
+        this.entityManager = entityManager;
+        /* no flush per line, the output is flushed by the buffers */
+        this.writer = objectMapper.writerFor(CreditCardDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public long export(String customer, ExportFormat format, OutputStream output) throws IOException {
+        var out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        var exported = 0L;
+
+        try (var cards = creditCardRepository.streamByCustomer(customer);
+             var generator = writer.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+
+            if (format == ExportFormat.CSV) {
+                out.write(CSV_HEADER);
+            }
+
+            for (var iterator = cards.iterator(); iterator.hasNext(); exported++) {
+                var card = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(out, card);
+                } else {
+                    writer.writeValue(generator, CreditCardDtoMapper.map(card));
+                    generator.writeRaw('\n');
+                }
+                /* already written, keeps the persistence context from growing */
+                entityManager.detach(card);
+            }
+        }
+
+        out.flush();
+        log.info("Cards exported: customer=[{}] format=[{}] total=[{}]", customer, format, exported);
+        return exported;
+    }
+
+    private static void writeCsv(Writer out, CreditCard card) throws IOException {
+        out.write(card.getId().toString());
+        out.write(',');
+        out.write(csv(card.getCustomer()));
+        out.write(',');
+        out.write(String.valueOf(card.getNumber()));
+        out.write(',');
+        out.write(card.getBrand() != null ? card.getBrand().name() : "");
+        out.write(',');
+        out.write(card.getStatus() != null ? card.getStatus().name() : "");
+        out.write(',');
+        out.write(card.getCreatedDate() != null ? card.getCreatedDate().toString() : "");
+        out.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,83 @@
+package challenge.service;
+
+import challenge.cache.CreditCardCache;
+import challenge.model.dto.CardLookupResultDto;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.VersionedCreditCardDto;
+import challenge.repository.CreditCardRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+public class CreditCardLookupService {
+
+    private final CreditCardRepository creditCardRepository;
+    private final CreditCardCache creditCardCache;
+    private final int chunkSize;
+
+    public CreditCardLookupService(
+            CreditCardRepository creditCardRepository,
+            CreditCardCache creditCardCache,
+            @Value("${lookup.credit-cards.chunk-size:100}") int chunkSize
+    ) {
+        this.creditCardRepository = creditCardRepository;
+        this.creditCardCache = creditCardCache;
+        this.chunkSize = chunkSize;
+    }
+
+    /* cached cards are taken as they are, the rest is read with one IN query per chunk of ids */
+    public CardLookupResultDto lookup(List<String> ids) {
+        var requested = new LinkedHashMap<String, String>(ids.size());
+        var missing = new ArrayList<String>();
+        for (var id : ids) {
+            var key = parseId(id);
+            if (key == null) {
+                missing.add(id);
+            } else {
+                requested.putIfAbsent(key, id);
+            }
+        }
+
+        var found = requested.isEmpty()
+                ? Map.<String, VersionedCreditCardDto>of()
+                : creditCardCache.getCards(requested.keySet(), this::load);
+
+        var cards = new ArrayList<CreditCardDto>(found.size());
+        requested.forEach((key, id) -> {
+            var card = found.get(key);
+            if (card != null) {
+                cards.add(card.card());
+            } else {
+                missing.add(id);
+            }
+        });
+        return new CardLookupResultDto(cards, missing);
+    }
+
+    private Map<String, VersionedCreditCardDto> load(Set<? extends String> keys) {
+        var uuids = keys.stream().map(UUID::fromString).toList();
+        var loaded = new HashMap<String, VersionedCreditCardDto>(keys.size());
+        for (int from = 0; from < uuids.size(); from += chunkSize) {
+            creditCardRepository.findVersionedDtosByIds(uuids.subList(from, Math.min(from + chunkSize, uuids.size())))
+                    .forEach(card -> loaded.put(card.card().id(), card));
+        }
+        return loaded;
+    }
+
+    /* canonical form used as cache key, null when the id is not a uuid and so cannot exist */
+    private static String parseId(String id) {
+        try {
+            return id == null ? null : UUID.fromString(id).toString();
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
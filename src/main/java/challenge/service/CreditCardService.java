@@ -1,24 +1,41 @@
 package challenge.service;
 
+import challenge.cache.CreditCardCache;
+import challenge.event.ChangeType;
+import challenge.event.CreditCardChangedEvent;
+import challenge.event.CustomerCardsDeactivatedEvent;
 import challenge.exception.CardAlreadyCloseException;
 import challenge.exception.CreditCardAlreadyExistsException;
 import challenge.exception.CreditCardNotFoundException;
+import challenge.index.CardNumberIndex;
+import challenge.mapper.CreditCardDtoMapper;
 import challenge.mapper.CreditCardMapper;
 import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.CursorPageDto;
+import challenge.model.dto.VersionedCreditCardDto;
 import challenge.model.dto.criteria.CreditCardCriteriaDto;
+import challenge.model.dto.criteria.CreditCardCursor;
 import challenge.model.entity.CreditCard;
+import challenge.model.enums.Brand;
 import challenge.model.enums.Status;
 import challenge.repository.CreditCardRepository;
 import challenge.specification.CreditCardSpecification;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -29,48 +46,160 @@ public class CreditCardService {
     private static final String NOT_FOUND_ERROR = "Card with id %s was not found";
     private static final String CARD_EXIST_ERROR = "There is already a registered card with the given number";
     private static final String CARD_ALREADY_INACTIVE_ERROR = "Card with id %s is already inactive";
+    private static final String CARDS_VERSION_QUERY = "cards-version";
 
     private final CreditCardRepository creditCardRepository;
+    private final CreditCardTotalsService creditCardTotalsService;
+    private final CreditCardCache creditCardCache;
+    private final CardNumberIndex cardNumberIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public Page<CreditCardDto> getCardsByCriteria(CreditCardCriteriaDto criteria, Pageable pageable) {
+        return creditCardCache.getCustomerQuery(criteria.customer(), List.of(criteria, pageable), () -> {
+            var cards = findCardsSliceByCriteria(criteria, pageable);
+            return new PageImpl<>(cards.getContent(), pageable, creditCardTotalsService.getTotal(criteria));
+        });
+    }
+
+    public Slice<CreditCardDto> getCardsSliceByCriteria(CreditCardCriteriaDto criteria, Pageable pageable) {
+        return creditCardCache.getCustomerQuery(criteria.customer(), List.of(Slice.class, criteria, pageable),
+                () -> findCardsSliceByCriteria(criteria, pageable));
+    }
 
-    public Page<CreditCard> getCardsByCriteria(CreditCardCriteriaDto criteria, Pageable pageable) {
+    private Slice<CreditCardDto> findCardsSliceByCriteria(CreditCardCriteriaDto criteria, Pageable pageable) {
         var specification = CreditCardSpecification.get(criteria);
-        return creditCardRepository.findAll(specification, pageable);
+        return creditCardRepository.findSlice(specification, pageable);
+    }
+
+    public CursorPageDto<CreditCardDto> getCardsByCursor(CreditCardCriteriaDto criteria, String cursor, int size) {
+        return creditCardCache.getCustomerQuery(criteria.customer(), List.of(CursorPageDto.class, criteria, cursor, size),
+                () -> findCardsByCursor(criteria, cursor, size));
+    }
+
+    private CursorPageDto<CreditCardDto> findCardsByCursor(CreditCardCriteriaDto criteria, String cursor, int size) {
+        var position = cursor == null || cursor.isEmpty() ? null : CreditCardCursor.decode(cursor);
+        var specification = CreditCardSpecification.get(criteria, position);
+
+        /* fetches one extra row to know if there is a next page without running a count */
+        var cards = creditCardRepository.findSorted(specification, CreditCardSpecification.KEYSET_SORT, size + 1);
+
+        if (cards.size() <= size) {
+            return new CursorPageDto<>(cards, size, null);
+        }
+
+        var content = cards.subList(0, size);
+        return new CursorPageDto<>(content, size, CreditCardCursor.of(content.get(size - 1)).encode());
+    }
+
+    public CreditCardDto getById(String id) {
+        return getVersionedById(id).card();
+    }
+
+    public VersionedCreditCardDto getVersionedById(String id) {
+        var uuid = parseId(id);
+        return creditCardCache.getCard(uuid.toString(), () -> creditCardRepository.findVersionedDtoById(uuid))
+                .orElseThrow(() -> new CreditCardNotFoundException(NOT_FOUND_ERROR.formatted(id)));
+    }
+
+    /* from the cached card when there is one, otherwise just the version column, the card is not loaded nor cached */
+    public long getVersion(String id) {
+        var uuid = parseId(id);
+        return creditCardCache.getCachedCard(uuid.toString())
+                .map(VersionedCreditCardDto::version)
+                .or(() -> creditCardRepository.findVersionById(uuid))
+                .orElseThrow(() -> new CreditCardNotFoundException(NOT_FOUND_ERROR.formatted(id)));
+    }
+
+    public Optional<String> getCachedCardsVersion(String customer) {
+        return creditCardCache.getCachedCustomerQuery(customer, CARDS_VERSION_QUERY);
     }
 
-    public CreditCard getById(String id) {
-        return creditCardRepository.findById(id)
+    /* opaque value that changes whenever any card of the customer does, cached with the customer's queries */
+    public String getCardsVersion(String customer) {
+        return creditCardCache.getCustomerQuery(customer, CARDS_VERSION_QUERY, () -> {
+            var version = creditCardRepository.findCardsVersion(customer);
+            return version.getTotal() + "-" + Objects.requireNonNullElse(version.getVersions(), 0L) + "-"
+                    + Objects.requireNonNullElse(version.getLastModifiedDate(), LocalDateTime.MIN);
+        });
+    }
+
+    /* writes work on the managed entity, the cache only holds dtos */
+    private CreditCard getForUpdate(String id) {
+        return creditCardRepository.findById(parseId(id))
                 .orElseThrow(() -> new CreditCardNotFoundException(NOT_FOUND_ERROR.formatted(id)));
     }
 
+    /* an id that is not a uuid cannot exist */
+    private static UUID parseId(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException ex) {
+            throw new CreditCardNotFoundException(NOT_FOUND_ERROR.formatted(id));
+        }
+    }
+
     public CreditCard create(CreditCardDto request) {
         validateExistingCard(request.number());
 
-        var card = CreditCardMapper.map(request);
-        card.setId(UUID.randomUUID().toString());
-        card.setCreatedDate(LocalDateTime.now());
+        var card = CreditCardMapper.mapNew(request);
 
-        return creditCardRepository.save(card);
+        var created = save(card);
+        publish(ChangeType.CREATED, null, created);
+        return created;
     }
 
     private void validateExistingCard(Long number) {
         /* no chequea estado porque una vez cerrada no se puede volver a crear */
-        if (creditCardRepository.findByNumber(number).isPresent()) {
+        if (cardNumberIndex.mightContain(number) && creditCardRepository.existsByNumber(number)) {
+            throw new CreditCardAlreadyExistsException(CARD_EXIST_ERROR);
+        }
+    }
+
+    /* the unique index has the last word on the number, e.g. a card created by another instance */
+    private CreditCard save(CreditCard card) {
+        try {
+            return creditCardRepository.saveAndFlush(card);
+        } catch (DataIntegrityViolationException ex) {
             throw new CreditCardAlreadyExistsException(CARD_EXIST_ERROR);
         }
     }
 
     public CreditCard remove(String id) {
-        var card = getById(id);
+        var card = getForUpdate(id);
 
         validateClosedCard(card);
+        var previous = CreditCardDtoMapper.map(card);
+
+        /* conditional update instead of merge + update, a concurrent removal leaves it without rows */
+        var now = LocalDateTime.now();
+        if (creditCardRepository.deactivate(card.getId(), now) == 0) {
+            throw new CardAlreadyCloseException(CARD_ALREADY_INACTIVE_ERROR.formatted(id));
+        }
 
         card.setStatus(Status.INACTIVE);
-        card.setLastModifiedDate(LocalDateTime.now());
-        return creditCardRepository.save(card);
+        card.setLastModifiedDate(now);
+        card.setVersion(card.getVersion() + 1);
+
+        publish(ChangeType.DEACTIVATED, previous, card);
+        return card;
+    }
+
+    /* one UPDATE for all the cards instead of a load and save per card */
+    public int removeByCustomer(String customer, Brand brand) {
+        var deactivated = creditCardRepository.deactivateByCustomer(customer, brand, LocalDateTime.now());
+
+        if (deactivated > 0) {
+            eventPublisher.publishEvent(new CustomerCardsDeactivatedEvent(customer, brand, deactivated));
+        }
+
+        log.info("Cards deactivated: customer=[{}] brand=[{}] total=[{}]", customer, brand, deactivated);
+        return deactivated;
     }
 
+    /* one transaction keeps the loaded card managed, the update is a dirty check flush checked against the version */
+    @Transactional
     public CreditCard update(String id, @Valid CreditCardDto request) {
-        var card = getById(id);
+        var card = getForUpdate(id);
 
         /* It could be a list of rules to apply and verify */
 
@@ -81,13 +210,21 @@ public class CreditCardService {
             validateExistingCard(request.number());
         }
 
+        var previous = CreditCardDtoMapper.map(card);
+
         /* status is not updated, it should be done by delete */
         card.setNumber(request.number());
         card.setBrand(request.brand());
         card.setCustomer(request.customer());
         card.setLastModifiedDate(LocalDateTime.now());
 
-        return creditCardRepository.save(card);
+        var updated = save(card);
+        publish(ChangeType.UPDATED, previous, updated);
+        return updated;
+    }
+
+    private void publish(ChangeType type, CreditCardDto previous, CreditCard current) {
+        eventPublisher.publishEvent(new CreditCardChangedEvent(type, previous, CreditCardDtoMapper.map(current)));
     }
 
     private static void validateClosedCard(CreditCard card) {
@@ -0,0 +1,127 @@
+package challenge.service;
+
+import challenge.event.CreditCardChangedEvent;
+import challenge.event.CreditCardsCreatedEvent;
+import challenge.event.CustomerCardsDeactivatedEvent;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.criteria.CreditCardCriteriaDto;
+import challenge.model.enums.Status;
+import challenge.repository.CreditCardRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Per (customer, status) card totals so list pages don't need a COUNT on every call.
+ * A customer is loaded with one grouped count the first time it's requested and then kept up to date by the
+ * change events. Totals are local to the instance, a write committed by another node is not seen here until the
+ * entry expires and is counted again. They are approximate: a count can see a row whose after-commit event has not been
+ * applied yet, and the event then adds it a second time, so a total can be off for up to one TTL.
+ */
+@Service
+public class CreditCardTotalsService {
+
+    /* last slot keeps cards without status */
+    private static final int NO_STATUS = Status.values().length;
+    private static final int CHANGE_STRIPES = 1024;
+
+    private final CreditCardRepository creditCardRepository;
+    private final Cache<String, AtomicLongArray> totals;
+    /* changes applied per customer hash, a count that raced with one of them is used once but not kept */
+    private final AtomicLongArray changes = new AtomicLongArray(CHANGE_STRIPES);
+
+    public CreditCardTotalsService(
+            CreditCardRepository creditCardRepository,
+            @Value("${totals.credit-cards.maximum-customers:10000}") long maximumCustomers,
+            @Value("${totals.credit-cards.ttl:10m}") Duration ttl
+    ) {
+        this.creditCardRepository = creditCardRepository;
+        this.totals = Caffeine.newBuilder()
+                .maximumSize(maximumCustomers)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public long getTotal(CreditCardCriteriaDto criteria) {
+        var customerTotals = totals.getIfPresent(criteria.customer());
+        if (customerTotals == null) {
+            customerTotals = load(criteria.customer());
+        }
+
+        if (criteria.status() != null) {
+            return customerTotals.get(criteria.status().ordinal());
+        }
+
+        var total = 0L;
+        for (var i = 0; i < customerTotals.length(); i++) {
+            total += customerTotals.get(i);
+        }
+        return total;
+    }
+
+    /* after commit, a rolled back update must not move the totals */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CreditCardChangedEvent event) {
+        if (event.previous() != null) {
+            add(event.previous(), -1);
+        }
+        add(event.current(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CreditCardsCreatedEvent event) {
+        event.cards().forEach(card -> add(card, 1));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CustomerCardsDeactivatedEvent event) {
+        var customerTotals = totals.getIfPresent(event.customer());
+        if (customerTotals != null) {
+            customerTotals.addAndGet(slot(Status.ACTIVE), -event.deactivated());
+            customerTotals.addAndGet(slot(Status.INACTIVE), event.deactivated());
+        }
+        changes.incrementAndGet(changeStripe(event.customer()));
+    }
+
+    private void add(CreditCardDto card, long delta) {
+        /* customers that were never requested are loaded from the db when needed */
+        var customerTotals = totals.getIfPresent(card.customer());
+        if (customerTotals != null) {
+            customerTotals.addAndGet(slot(card.status()), delta);
+        }
+        changes.incrementAndGet(changeStripe(card.customer()));
+    }
+
+    /*
+     * the count runs outside any cache lock; it is only kept when no change of the customer was applied meanwhile.
+     * That does not cover an event applied after the put for a row the count already saw, see the class comment
+     */
+    private AtomicLongArray load(String customer) {
+        var stripe = changeStripe(customer);
+        var changesBefore = changes.get(stripe);
+
+        var customerTotals = new AtomicLongArray(NO_STATUS + 1);
+        creditCardRepository.countByStatus(customer)
+                .forEach(count -> customerTotals.set(slot(count.getStatus()), count.getTotal()));
+
+        if (changes.get(stripe) != changesBefore) {
+            return customerTotals;
+        }
+        var current = totals.asMap().putIfAbsent(customer, customerTotals);
+        return current != null ? current : customerTotals;
+    }
+
+    private static int changeStripe(String customer) {
+        var hash = customer.hashCode();
+        return (hash ^ (hash >>> 16)) & (CHANGE_STRIPES - 1);
+    }
+
+    private static int slot(Status status) {
+        return status == null ? NO_STATUS : status.ordinal();
+    }
+}
@@ -1,22 +1,48 @@
 package challenge.service;
 
 import challenge.client.InternalCallClient;
+import challenge.client.model.PageResponseDto;
 import challenge.model.dto.CreditCardDto;
 import challenge.model.dto.criteria.CreditCardCriteriaDto;
-import lombok.AllArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 @Service
-@AllArgsConstructor
 public class InternalCallService {
 
     private final InternalCallClient client;
 
+    /* concurrent calls with the same key share one downstream request */
+    private final ConcurrentMap<CallKey, CompletableFuture<PageResponseDto<CreditCardDto>>> inFlight = new ConcurrentHashMap<>();
+
+    /* null when the result cache is disabled (ttl 0) */
+    private final Cache<CallKey, PageResponseDto<CreditCardDto>> results;
+
+    public InternalCallService(
+            InternalCallClient client,
+            @Value("${clients.internal-call.coalescing.result-ttl:0s}") Duration resultTtl,
+            @Value("${clients.internal-call.coalescing.result-maximum-size:1000}") long resultMaximumSize
+    ) {
+        this.client = client;
+        this.results = resultTtl.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(resultTtl)
+                .maximumSize(resultMaximumSize)
+                .build();
+    }
+
     public Page<CreditCardDto> getCards(CreditCardCriteriaDto criteria, Pageable pageable) {
-        var cards = client.getCards(criteria, pageable);
+        var cards = fetch(new CallKey(criteria, pageable));
         return new PageImpl<>(
                 cards.content(),
                 pageable,
@@ -24,4 +50,52 @@ public class InternalCallService {
         );
     }
 
+    private PageResponseDto<CreditCardDto> fetch(CallKey key) {
+        if (results != null) {
+            var cached = results.getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        var call = new CompletableFuture<PageResponseDto<CreditCardDto>>();
+        var existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            var cards = client.getCards(key.criteria(), key.pageable());
+            /* cached before leaving the in flight map, so there is no window for a second call */
+            if (results != null) {
+                results.put(key, cards);
+            }
+            call.complete(cards);
+            return cards;
+        } catch (Throwable ex) {
+            /* errors too, a waiter on a future that is never completed would block forever */
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static PageResponseDto<CreditCardDto> join(CompletableFuture<PageResponseDto<CreditCardDto>> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private record CallKey(CreditCardCriteriaDto criteria, Pageable pageable) {
+    }
+
 }
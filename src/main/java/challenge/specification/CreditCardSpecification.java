@@ -1,16 +1,30 @@
 package challenge.specification;
 
 import challenge.model.dto.criteria.CreditCardCriteriaDto;
+import challenge.model.dto.criteria.CreditCardCursor;
+import challenge.model.dto.criteria.CreditCardWatermark;
 import challenge.model.entity.CreditCard;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDateTime;
+
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class CreditCardSpecification {
 
+    private static final String ID = "id";
     private static final String CUSTOMER = "customer";
     private static final String STATUS = "status";
+    private static final String CREATED_DATE = "createdDate";
+    private static final String LAST_MODIFIED_DATE = "lastModifiedDate";
+
+    /* keyset order, must match the (CUSTOMER_ID, STATUS, CREATED_DATE, ID) index */
+    public static final Sort KEYSET_SORT = Sort.by(CREATED_DATE, ID);
+
+    /* change feed order, must match the (LAST_MODIFIED_DATE, ID) index */
+    public static final Sort CHANGES_SORT = Sort.by(LAST_MODIFIED_DATE, ID);
 
     public static Specification<CreditCard> get(CreditCardCriteriaDto criteria) {
         Specification<CreditCard> spec = Specification.where((root, query, builder) ->
@@ -23,4 +37,44 @@ public class CreditCardSpecification {
 
         return spec;
     }
-}
\ No newline at end of file
+
+    public static Specification<CreditCard> get(CreditCardCriteriaDto criteria, CreditCardCursor cursor) {
+        var spec = get(criteria);
+
+        if (cursor != null) {
+            spec = spec.and(after(cursor));
+        }
+
+        return spec;
+    }
+
+    /* changes up to until, after the watermark when there is one */
+    public static Specification<CreditCard> changes(CreditCardWatermark since, LocalDateTime until) {
+        Specification<CreditCard> spec = Specification.where((root, query, builder) ->
+                builder.lessThanOrEqualTo(root.get(LAST_MODIFIED_DATE), until)
+        );
+
+        if (since != null) {
+            spec = spec.and((root, query, builder) -> builder.or(
+                    builder.greaterThan(root.get(LAST_MODIFIED_DATE), since.lastModifiedDate()),
+                    builder.and(
+                            builder.equal(root.get(LAST_MODIFIED_DATE), since.lastModifiedDate()),
+                            builder.greaterThan(root.get(ID), since.id())
+                    )
+            ));
+        }
+
+        return spec;
+    }
+
+    /* seek predicate: (createdDate, id) > (cursor.createdDate, cursor.id) */
+    private static Specification<CreditCard> after(CreditCardCursor cursor) {
+        return (root, query, builder) -> builder.or(
+                builder.greaterThan(root.get(CREATED_DATE), cursor.createdDate()),
+                builder.and(
+                        builder.equal(root.get(CREATED_DATE), cursor.createdDate()),
+                        builder.greaterThan(root.get(ID), cursor.id())
+                )
+        );
+    }
+}
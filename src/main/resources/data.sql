@@ -1,7 +1,7 @@
-INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE) VALUES ('a0d281a5-4de5-4f81-bc27-78eaefd28d36', '12345678', 4501000100010001, 'VISA', 'ACTIVE', '2025-02-06 00:00:00');
-INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE, LAST_MODIFIED_DATE) VALUES ('27cbe3da-ced2-4b36-a56e-565f26252c68', '12345678', 4501000100010002, 'VISA', 'INACTIVE', '2025-02-01 00:00:00', '2025-02-06 17:50:12');
-INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE) VALUES ('420d971b-054d-4f0e-8c56-873acf87ad22', '12345678', 4501000100010003, 'MASTERCARD', 'ACTIVE', '2025-02-06 00:00:00');
-INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE) VALUES ('0f9bee11-327d-4685-acf6-87afff21b272', '87654321', 4502000100010001, 'VISA', 'ACTIVE', '2025-02-06 00:00:00');
-INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE) VALUES ('8110ed08-b5f9-4ec2-8326-69089bf7f161', '87654321', 5502000100010002, 'MASTERCARD', 'ACTIVE', '2025-02-01 00:00:00');
+INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE, LAST_MODIFIED_DATE) VALUES (CAST('a0d281a5-4de5-4f81-bc27-78eaefd28d36' AS UUID), '12345678', 4501000100010001, 'VISA', 'ACTIVE', '2025-02-06 00:00:00', '2025-02-06 00:00:00');
+INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE, LAST_MODIFIED_DATE) VALUES (CAST('27cbe3da-ced2-4b36-a56e-565f26252c68' AS UUID), '12345678', 4501000100010002, 'VISA', 'INACTIVE', '2025-02-01 00:00:00', '2025-02-06 17:50:12');
+INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE, LAST_MODIFIED_DATE) VALUES (CAST('420d971b-054d-4f0e-8c56-873acf87ad22' AS UUID), '12345678', 4501000100010003, 'MASTERCARD', 'ACTIVE', '2025-02-06 00:00:00', '2025-02-06 00:00:00');
+INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE, LAST_MODIFIED_DATE) VALUES (CAST('0f9bee11-327d-4685-acf6-87afff21b272' AS UUID), '87654321', 4502000100010001, 'VISA', 'ACTIVE', '2025-02-06 00:00:00', '2025-02-06 00:00:00');
+INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE, LAST_MODIFIED_DATE) VALUES (CAST('8110ed08-b5f9-4ec2-8326-69089bf7f161' AS UUID), '87654321', 5502000100010002, 'MASTERCARD', 'ACTIVE', '2025-02-01 00:00:00', '2025-02-01 00:00:00');
 
 
@@ -1,34 +1,79 @@
 package challenge.integration;
 
 import challenge.ChallengeApi;
+import challenge.identifier.UuidV7;
+import challenge.journal.CardChangeJournal;
+import challenge.model.dto.BatchItemResultDto;
+import challenge.mapper.CreditCardMapper;
+import challenge.model.dto.CreditCardChangeDto;
+import challenge.model.dto.CardLookupRequestDto;
 import challenge.model.dto.CreditCardDto;
+import challenge.model.entity.CreditCard;
 import challenge.model.enums.Brand;
 import challenge.model.enums.Status;
 import challenge.repository.CreditCardRepository;
+import challenge.service.CreditCardBatchService;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+@AutoConfigureObservability(tracing = false)
 @SpringBootTest(
     classes = ChallengeApi.class,
     webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
 )
 class CreditCardEndpointsTest {
 
+    private static final String CARD_1 = "0194d8c0-2800-7000-8000-000000000001";
+    private static final String CARD_2 = "0194d8c0-2800-7000-8000-000000000002";
+    private static final String CARD_3 = "0194d8c0-2800-7000-8000-000000000003";
+
+    @LocalServerPort
+    private int port;
+
     @Autowired
     private WebTestClient webTestClient;
 
     @Autowired
     private CreditCardRepository creditCardRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CardChangeJournal cardChangeJournal;
+
+    @Autowired
+    private CreditCardBatchService creditCardBatchService;
+
     @Test
     void testRequiredAttributesAsNullReturnsBadRequest() {
         var request = new CreditCardDto(null, null, null, null, null, null);
@@ -77,6 +122,34 @@ class CreditCardEndpointsTest {
                 .isEqualTo("There is already a registered card with the given number");
     }
 
+    @Test
+    void testCardCreatedOutsideTheApiReturnsConflict() {
+        var number = 5000000000000005L;
+        var card = new CreditCard();
+        card.setId(UuidV7.generate());
+        card.setCustomer("customer_id");
+        card.setNumber(number);
+        card.setBrand(Brand.VISA);
+        card.setStatus(Status.ACTIVE);
+        creditCardRepository.save(card);
+
+        var request = new CreditCardDto(null, "customer_id", number, Brand.VISA, null, null);
+
+        webTestClient
+                .post()
+                .uri("/credit-cards")
+                .headers(auth())
+                .bodyValue(request)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.message")
+                .isEqualTo("There is already a registered card with the given number");
+
+        creditCardRepository.delete(card);
+    }
+
     @Test
     void testValidCardRequestReturnsCreated() {
         var number = 5000000000000004L;
@@ -96,6 +169,122 @@ class CreditCardEndpointsTest {
         creditCardRepository.delete(card.get());
     }
 
+    @Test
+    void testCreateAndRemoveDoNotReloadTheCard() {
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        var request = new CreditCardDto(null, "statements_customer", 5000000000000006L, Brand.VISA, null, null);
+
+        statistics.clear();
+        var id = webTestClient
+                .post()
+                .uri("/credit-cards")
+                .headers(auth())
+                .bodyValue(request)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.CREATED)
+                .expectBody(CreditCardDto.class)
+                .returnResult()
+                .getResponseBody()
+                .id();
+        /* just the insert, no select from merge */
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        webTestClient
+                .delete()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/" + id).build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.status")
+                .isEqualTo(Status.INACTIVE.name());
+        /* the load and the conditional update */
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testBatchCreationReturnsResultPerItem() {
+        var requests = List.of(
+                new CreditCardDto(null, "batch_customer", 5000000000000101L, Brand.VISA, null, null),
+                new CreditCardDto(null, "batch_customer", 5000000000000001L, Brand.VISA, null, null),
+                new CreditCardDto(null, "batch_customer", 5000000000000101L, Brand.VISA, null, null),
+                new CreditCardDto(null, "batch_customer", null, Brand.VISA, null, null)
+        );
+
+        webTestClient
+                .post()
+                .uri("/credit-cards/batch")
+                .headers(auth())
+                .bodyValue(requests)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.created").isEqualTo(1)
+                .jsonPath("$.rejected").isEqualTo(3)
+                .jsonPath("$.items[0].id").isNotEmpty()
+                .jsonPath("$.items[1].error").isEqualTo("There is already a registered card with the given number")
+                .jsonPath("$.items[2].error").isEqualTo("The number is repeated in the batch")
+                .jsonPath("$.items[3].error").isEqualTo("number is mandatory");
+
+        creditCardRepository.delete(creditCardRepository.findByNumber(5000000000000101L).orElseThrow());
+    }
+
+    @Test
+    void testNdjsonBatchCreationReturnsCreated() {
+        var body = """
+                {"customer":"batch_customer","number":5000000000000102,"brand":"VISA"}
+                {"customer":"batch_customer","number":5000000000000103,"brand":"AMEX"}
+                """;
+
+        webTestClient
+                .post()
+                .uri("/credit-cards/batch")
+                .headers(auth())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.created").isEqualTo(2);
+
+        Assertions.assertTrue(creditCardRepository.findByNumber(5000000000000103L).isPresent());
+        creditCardRepository.delete(creditCardRepository.findByNumber(5000000000000102L).orElseThrow());
+        creditCardRepository.delete(creditCardRepository.findByNumber(5000000000000103L).orElseThrow());
+    }
+
+    @Test
+    void testMalformedBatchItemIsRejectedAndCardsBeforeItAreReported() {
+        var body = """
+                {"customer":"batch_customer","number":5000000000000104,"brand":"VISA"}
+                {"customer":"batch_customer","number":"not a number","brand":"VISA"}
+                {"customer":"batch_customer","number":5000000000000105,"brand":"VISA"}
+                """;
+
+        webTestClient
+                .post()
+                .uri("/credit-cards/batch")
+                .headers(auth())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.created").isEqualTo(1)
+                .jsonPath("$.rejected").isEqualTo(1)
+                .jsonPath("$.items[0].id").isNotEmpty()
+                .jsonPath("$.items[1].index").isEqualTo(1)
+                .jsonPath("$.items[1].error").isEqualTo("item is malformed, the items after it were not read");
+
+        Assertions.assertTrue(creditCardRepository.findByNumber(5000000000000105L).isEmpty());
+        creditCardRepository.delete(creditCardRepository.findByNumber(5000000000000104L).orElseThrow());
+    }
+
     @ParameterizedTest
     @EnumSource(Status.class)
     void testGetCardsByStatusRetunsCardPage(Status status) {
@@ -114,6 +303,98 @@ class CreditCardEndpointsTest {
                 .isEqualTo(1);
     }
 
+    @Test
+    void testGetCardsReturnsCompactPage() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards")
+                        .queryParam("customer_id", "CUSTOMER_TEST_ID")
+                        .queryParam("size", 1)
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.number").isEqualTo(0)
+                .jsonPath("$.size").isEqualTo(1)
+                .jsonPath("$.totalElements").isEqualTo(2)
+                .jsonPath("$.totalPages").isEqualTo(2)
+                .jsonPath("$.last").isEqualTo(false)
+                .jsonPath("$.pageable").doesNotExist()
+                .jsonPath("$.sort").doesNotExist();
+    }
+
+    @Test
+    void testLargeJsonResponseIsCompressed() throws Exception {
+        /* plain jdk client, it does not inflate the body behind our back */
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v3/api-docs"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.AUTHORIZATION, "Basic " + HttpHeaders.encodeBasicAuth("test_user", "test_password", null))
+                .build();
+        var response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        Assertions.assertEquals(HttpStatus.OK.value(), response.statusCode());
+        Assertions.assertEquals(Optional.of("gzip"), response.headers().firstValue(HttpHeaders.CONTENT_ENCODING));
+        try (var body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            Assertions.assertTrue(body.readAllBytes().length > response.body().length);
+        }
+    }
+
+    @Test
+    void testGetCardsWithoutTotalReturnsSlice() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards")
+                        .queryParam("customer_id", "CUSTOMER_TEST_ID")
+                        .queryParam("include_total", false)
+                        .queryParam("size", 1)
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.last").isEqualTo(false)
+                .jsonPath("$.totalElements").doesNotExist();
+    }
+
+    @Test
+    void testExportStreamsCustomerCards() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/export")
+                        .queryParam("customer_id", "CUSTOMER_TEST_ID")
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> {
+                    var lines = body.split("\n");
+                    Assertions.assertEquals(2, lines.length);
+                    Assertions.assertTrue(lines[0].contains("\"id\":\"" + CARD_1 + "\""));
+                });
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/export")
+                        .queryParam("customer_id", "CUSTOMER_TEST_ID")
+                        .queryParam("format", "CSV")
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody(String.class)
+                .value(body -> Assertions.assertTrue(body.startsWith("id,customer,number,brand,status,createdDate\n" + CARD_1 + ",")));
+    }
+
     @Test
     void testGetCardWithRandomCustomerIdReturnsEmptyPage() {
         webTestClient
@@ -130,25 +411,78 @@ class CreditCardEndpointsTest {
                 .isEqualTo(0);
     }
 
+    @Test
+    void testGetCardsByCursorWalksAllPages() {
+        var firstPage = webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards")
+                        .queryParam("customer_id", "CUSTOMER_TEST_ID")
+                        .queryParam("cursor", "")
+                        .queryParam("size", 1)
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(CARD_1)
+                .jsonPath("$.next_cursor").isNotEmpty()
+                .returnResult();
+
+        String cursor = JsonPath.read(new String(firstPage.getResponseBodyContent()), "$.next_cursor");
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards")
+                        .queryParam("customer_id", "CUSTOMER_TEST_ID")
+                        .queryParam("cursor", cursor)
+                        .queryParam("size", 1)
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(CARD_2)
+                .jsonPath("$.next_cursor").doesNotExist();
+    }
+
+    @Test
+    void testGetCardsWithInvalidCursorReturnsBadRequest() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards")
+                        .queryParam("customer_id", "CUSTOMER_TEST_ID")
+                        .queryParam("cursor", "not-a-cursor")
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.BAD_REQUEST)
+                .expectBody()
+                .jsonPath("$.type")
+                .isEqualTo("bad_request");
+    }
+
     @Test
     void testRemovalAttemptOnInactiveCardReturnsConflict() {
         webTestClient
                 .delete()
-                .uri(uriBuilder -> uriBuilder.path("/credit-cards/CARD_2").build())
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/" + CARD_2).build())
                 .headers(auth())
                 .exchange()
                 .expectStatus()
                 .isEqualTo(HttpStatus.CONFLICT)
                 .expectBody()
                 .jsonPath("$.message")
-                .isEqualTo("Card with id CARD_2 is already inactive");
+                .isEqualTo("Card with id " + CARD_2 + " is already inactive");
     }
 
     @Test
     void testRemovalAttemptOnActiveCardReturnsOk() {
         webTestClient
                 .delete()
-                .uri(uriBuilder -> uriBuilder.path("/credit-cards/CARD_3").build())
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/" + CARD_3).build())
                 .headers(auth())
                 .exchange()
                 .expectStatus()
@@ -158,11 +492,454 @@ class CreditCardEndpointsTest {
                 .isEqualTo(Status.INACTIVE.name());
     }
 
+    @Test
+    void testBulkRemovalDeactivatesCustomerCards() {
+        var customer = "bulk_customer";
+        List.of(
+                new CreditCardDto(null, customer, 5000000000000201L, Brand.VISA, null, null),
+                new CreditCardDto(null, customer, 5000000000000202L, Brand.VISA, null, null),
+                new CreditCardDto(null, customer, 5000000000000203L, Brand.MASTERCARD, null, null)
+        ).forEach(request -> webTestClient
+                .post()
+                .uri("/credit-cards")
+                .headers(auth())
+                .bodyValue(request)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.CREATED));
+        /* loads the cached totals of the customer */
+        expectActiveCards(customer, 3);
+
+        expectBulkRemoval(customer, Brand.VISA, 2);
+        expectActiveCards(customer, 1);
+
+        expectBulkRemoval(customer, null, 1);
+        expectBulkRemoval(customer, null, 0);
+        expectActiveCards(customer, 0);
+    }
+
+    private void expectBulkRemoval(String customer, Brand brand, int deactivated) {
+        webTestClient
+                .delete()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards")
+                        .queryParam("customer_id", customer)
+                        .queryParamIfPresent("brand", Optional.ofNullable(brand))
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.deactivated")
+                .isEqualTo(deactivated);
+    }
+
+    private void expectActiveCards(String customer, int total) {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards")
+                        .queryParam("customer_id", customer)
+                        .queryParam("status", Status.ACTIVE.name())
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(total)
+                .jsonPath("$.content.length()").isEqualTo(total);
+    }
+
+    @Test
+    void testCardChangesAreAppendedToTheJournal() {
+        var offset = cardChangeJournal.getCommittedOffset();
+        var request = new CreditCardDto(null, "journal_customer", 5000000000000301L, Brand.AMEX, null, null);
+
+        var id = webTestClient
+                .post()
+                .uri("/credit-cards")
+                .headers(auth())
+                .bodyValue(request)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.CREATED)
+                .expectBody(CreditCardDto.class)
+                .returnResult()
+                .getResponseBody()
+                .id();
+        webTestClient
+                .delete()
+                .uri("/credit-cards/" + id)
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK);
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/journal")
+                        .queryParam("offset", offset)
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.entries.length()").isEqualTo(2)
+                .jsonPath("$.entries[0].offset").isEqualTo(offset)
+                .jsonPath("$.entries[0].type").isEqualTo("CREATED")
+                .jsonPath("$.entries[0].id").isEqualTo(id)
+                .jsonPath("$.entries[1].type").isEqualTo("DEACTIVATED")
+                .jsonPath("$.entries[1].status").isEqualTo(Status.INACTIVE.name())
+                .jsonPath("$.next_offset").isEqualTo(cardChangeJournal.getCommittedOffset());
+    }
+
+    @Test
+    void testChangeFeedReturnsChangesSinceTheWatermark() {
+        var watermark = lastChangeWatermark();
+        var id = createCard(new CreditCardDto(null, "changes_customer", 5000000000000401L, Brand.VISA, null, null));
+
+        var created = getChanges(watermark);
+        Assertions.assertEquals(List.of(id), JsonPath.read(created, "$.content[*].id"));
+        Assertions.assertEquals(List.of(Status.ACTIVE.name()), JsonPath.read(created, "$.content[*].status"));
+        Assertions.assertEquals(false, JsonPath.read(created, "$.has_more"));
+
+        webTestClient
+                .delete()
+                .uri("/credit-cards/" + id)
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK);
+
+        var deactivated = getChanges(JsonPath.read(created, "$.watermark"));
+        Assertions.assertEquals(List.of(id), JsonPath.read(deactivated, "$.content[*].id"));
+        Assertions.assertEquals(List.of(Status.INACTIVE.name()), JsonPath.read(deactivated, "$.content[*].status"));
+
+        String last = JsonPath.read(deactivated, "$.watermark");
+        var none = getChanges(last);
+        Assertions.assertEquals(List.of(), JsonPath.read(none, "$.content"));
+        Assertions.assertEquals(last, JsonPath.read(none, "$.watermark"));
+    }
+
+    @Test
+    void testChangeStreamPushesNewChanges() {
+        var events = webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/changes")
+                        .queryParam("since", lastChangeWatermark())
+                        .build())
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<CreditCardChangeDto>>() {
+                })
+                .getResponseBody();
+
+        var id = createCard(new CreditCardDto(null, "changes_customer", 5000000000000402L, Brand.VISA, null, null));
+
+        /* skips the comment that opens the stream */
+        var event = events.filter(sse -> sse.data() != null).blockFirst(Duration.ofSeconds(5));
+        Assertions.assertNotNull(event);
+        Assertions.assertEquals("change", event.event());
+        Assertions.assertEquals(id, event.data().id());
+        Assertions.assertNotNull(event.id());
+    }
+
+    @Test
+    void testChangeStreamPollsChangesCommittedWithoutAnEvent() {
+        var events = webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/changes")
+                        .queryParam("since", lastChangeWatermark())
+                        .build())
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<CreditCardChangeDto>>() {
+                })
+                .getResponseBody();
+
+        /* as another instance would write it, no change event is published here */
+        var card = creditCardRepository.save(CreditCardMapper.mapNew(
+                new CreditCardDto(null, "changes_customer", 5000000000000403L, Brand.AMEX, null, null)));
+
+        var event = events.filter(sse -> sse.data() != null).blockFirst(Duration.ofSeconds(5));
+        Assertions.assertNotNull(event);
+        Assertions.assertEquals(card.getId().toString(), event.data().id());
+    }
+
+    @Test
+    void testChangeFeedWithInvalidWatermarkReturnsBadRequest() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/changes")
+                        .queryParam("since", "not-a-watermark")
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private String createCard(CreditCardDto request) {
+        return webTestClient
+                .post()
+                .uri("/credit-cards")
+                .headers(auth())
+                .bodyValue(request)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.CREATED)
+                .expectBody(CreditCardDto.class)
+                .returnResult()
+                .getResponseBody()
+                .id();
+    }
+
+    /* walks the feed to its end */
+    private String lastChangeWatermark() {
+        String watermark = null;
+        while (true) {
+            var changes = getChanges(watermark);
+            watermark = JsonPath.read(changes, "$.watermark");
+            if (!(boolean) JsonPath.read(changes, "$.has_more")) {
+                return watermark;
+            }
+        }
+    }
+
+    @Test
+    void testBatchCardsReadBeforeASlowChunkCommitAreStillInTheFeed() {
+        var first = new CreditCardDto(null, "batch_feed_customer", 5000000000000404L, Brand.VISA, null, null);
+        var second = new CreditCardDto(null, "batch_feed_customer", 5000000000000405L, Brand.VISA, null, null);
+        var since = new String[1];
+
+        var requests = new Iterator<CreditCardDto>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                /* the upload stalls after the first card, meanwhile a consumer moves past a newer change */
+                if (next == 1 && since[0] == null) {
+                    createCard(new CreditCardDto(null, "batch_feed_customer", 5000000000000406L, Brand.VISA, null, null));
+                    since[0] = lastChangeWatermark();
+                }
+                return next < 2;
+            }
+
+            @Override
+            public CreditCardDto next() {
+                return next++ == 0 ? first : second;
+            }
+        };
+
+        var result = creditCardBatchService.create(requests);
+
+        var changes = getChanges(since[0]);
+        Assertions.assertEquals(
+                result.items().stream().map(BatchItemResultDto::id).toList(),
+                JsonPath.read(changes, "$.content[*].id")
+        );
+    }
+
+    private String getChanges(String since) {
+        return new String(webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/changes")
+                        .queryParamIfPresent("since", Optional.ofNullable(since))
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .returnResult()
+                .getResponseBody(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testGetCardWithMatchingETagReturnsNotModified() {
+        var id = createCard(new CreditCardDto(null, "etag_customer", 5000000000000501L, Brand.VISA, null, null));
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        var eTag = webTestClient
+                .get()
+                .uri("/credit-cards/" + id)
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectHeader()
+                .valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .returnResult(CreditCardDto.class)
+                .getResponseHeaders()
+                .getETag();
+
+        /* the version of the cached card decides it */
+        statistics.clear();
+        webTestClient
+                .get()
+                .uri("/credit-cards/" + id)
+                .headers(auth())
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.NOT_MODIFIED)
+                .expectBody()
+                .isEmpty();
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+
+        webTestClient
+                .put()
+                .uri("/credit-cards/" + id)
+                .headers(auth())
+                .bodyValue(new CreditCardDto(null, "etag_customer", 5000000000000502L, Brand.VISA, null, null))
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK);
+
+        webTestClient
+                .get()
+                .uri("/credit-cards/" + id)
+                .headers(auth())
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectHeader()
+                .valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.number").isEqualTo(5000000000000502L);
+    }
+
+    @Test
+    void testGetCardsWithMatchingETagReturnsNotModifiedUntilACardChanges() {
+        var customer = "etag_list_customer";
+        createCard(new CreditCardDto(null, customer, 5000000000000511L, Brand.VISA, null, null));
+
+        var eTag = webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards").queryParam("customer_id", customer).build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+        Assertions.assertTrue(eTag.startsWith("W/"));
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards").queryParam("customer_id", customer).build())
+                .headers(auth())
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        createCard(new CreditCardDto(null, customer, 5000000000000512L, Brand.VISA, null, null));
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards").queryParam("customer_id", customer).build())
+                .headers(auth())
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(2);
+    }
+
+    @Test
+    void testGetCardsWithoutTotalRunsNoVersionAggregate() {
+        var customer = "etag_slice_customer";
+        createCard(new CreditCardDto(null, customer, 5000000000000513L, Brand.VISA, null, null));
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        var headers = webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards")
+                        .queryParam("customer_id", customer)
+                        .queryParam("include_total", false)
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .returnResult(String.class)
+                .getResponseHeaders();
+
+        /* only the slice query, and no etag since the version was never computed */
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertNull(headers.getETag());
+    }
+
+    @Test
+    void testLookupReturnsFoundCardsAndMissingIds() {
+        var first = createCard(new CreditCardDto(null, "lookup_customer", 5000000000000521L, Brand.VISA, null, null));
+        var second = createCard(new CreditCardDto(null, "lookup_customer", 5000000000000522L, Brand.AMEX, null, null));
+        var unknown = "0194d8c0-2800-7000-8000-000000000000";
+        var request = new CardLookupRequestDto(List.of(second, unknown, first, "CARD_8", second));
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        webTestClient
+                .post()
+                .uri("/credit-cards/lookup")
+                .headers(auth())
+                .bodyValue(request)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.cards.length()").isEqualTo(2)
+                .jsonPath("$.cards[0].id").isEqualTo(second)
+                .jsonPath("$.cards[1].id").isEqualTo(first)
+                .jsonPath("$.missing_ids.length()").isEqualTo(2)
+                .jsonPath("$.missing_ids[0]").isEqualTo("CARD_8")
+                .jsonPath("$.missing_ids[1]").isEqualTo(unknown);
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+
+        /* the found cards are cached now, only the unknown id goes to the database */
+        statistics.clear();
+        webTestClient
+                .post()
+                .uri("/credit-cards/lookup")
+                .headers(auth())
+                .bodyValue(request)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$.cards.length()").isEqualTo(2);
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testLookupWithoutIdsReturnsBadRequest() {
+        webTestClient
+                .post()
+                .uri("/credit-cards/lookup")
+                .headers(auth())
+                .bodyValue(new CardLookupRequestDto(List.of()))
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     void testRequestWithoutCredentialsReturnsUnauthorized() {
         webTestClient
                 .delete()
-                .uri(uriBuilder -> uriBuilder.path("/credit-cards/CARD_3").build())
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/" + CARD_3).build())
                 .exchange()
                 .expectStatus()
                 .isEqualTo(HttpStatus.UNAUTHORIZED);
@@ -172,13 +949,71 @@ class CreditCardEndpointsTest {
     void testGetCardWithExistingIdReturnsOk() {
         webTestClient
                 .get()
-                .uri(uriBuilder -> uriBuilder.path("/credit-cards/CARD_3").build())
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/" + CARD_3).build())
                 .headers(auth())
                 .exchange()
                 .expectStatus()
                 .isEqualTo(HttpStatus.OK);
     }
 
+    @Test
+    void testRepeatedGetCardIsServedFromCache() {
+        for (var i = 0; i < 2; i++) {
+            webTestClient
+                    .get()
+                    .uri(uriBuilder -> uriBuilder.path("/credit-cards/" + CARD_1).build())
+                    .headers(auth())
+                    .exchange()
+                    .expectStatus()
+                    .isEqualTo(HttpStatus.OK);
+        }
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/caches/stats").build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody()
+                .jsonPath("$[?(@.name == 'credit-cards')].hits")
+                .value((List<Integer> hits) -> Assertions.assertTrue(hits.get(0) > 0));
+    }
+
+    @Test
+    void testPrometheusEndpointExposesRequestRepositoryAndHibernateMetrics() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards")
+                        .queryParam("customer_id", UUID.randomUUID().toString())
+                        .build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK);
+
+        /* the histogram buckets go well over the default 256KB buffer */
+        webTestClient
+                .mutate()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+                .build()
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/actuator/prometheus").build())
+                .headers(auth())
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.OK)
+                .expectBody(String.class)
+                .value(metrics -> {
+                    Assertions.assertTrue(metrics.contains("http_server_requests_seconds_bucket"));
+                    Assertions.assertTrue(metrics.contains("uri=\"/credit-cards\""));
+                    Assertions.assertTrue(metrics.contains("spring_data_repository_invocations_seconds_bucket"));
+                    Assertions.assertTrue(metrics.contains("hibernate_query_executions_total"));
+                    Assertions.assertTrue(metrics.contains("tomcat_threads_busy_threads"));
+                    Assertions.assertTrue(metrics.contains("internal_call_latency_seconds_bucket"));
+                });
+    }
+
     @Test
     void testGetCardWithNonExistingIdReturnsNotFound() {
         webTestClient
@@ -195,7 +1030,7 @@ class CreditCardEndpointsTest {
         var request = new CreditCardDto(null, "customer", 5000000000000002L, Brand.MASTERCARD, null, null);
         webTestClient
                 .put()
-                .uri(uriBuilder -> uriBuilder.path("/credit-cards/CARD_2").build())
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/" + CARD_2).build())
                 .headers(auth())
                 .bodyValue(request)
                 .exchange()
@@ -208,7 +1043,7 @@ class CreditCardEndpointsTest {
         var request = new CreditCardDto(null, "customer", 5000000000000001L, Brand.VISA, null, null);
         webTestClient
                 .put()
-                .uri(uriBuilder -> uriBuilder.path("/credit-cards/CARD_3").build())
+                .uri(uriBuilder -> uriBuilder.path("/credit-cards/" + CARD_3).build())
                 .headers(auth())
                 .bodyValue(request)
                 .exchange()
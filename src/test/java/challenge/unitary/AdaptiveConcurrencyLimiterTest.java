@@ -0,0 +1,61 @@
+package challenge.unitary;
+
+import challenge.configuration.admission.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long TARGET = 100;
+
+    @Test
+    void testLimitGrowsWhileItIsUsedAndRequestsAreFast() {
+        var limiter = new AdaptiveConcurrencyLimiter(4, 1, 8, TARGET, 0.5);
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+        }
+        Assertions.assertFalse(limiter.tryAcquire());
+        for (int i = 0; i < 4; i++) {
+            limiter.release(TARGET / 2, false);
+        }
+
+        /* rounds that fill the limit, each adds about one */
+        for (int round = 0; round < 4; round++) {
+            var acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(TARGET / 2, false);
+            }
+        }
+        Assertions.assertEquals(0, limiter.getInFlight());
+        var grown = limiter.getLimit();
+        Assertions.assertTrue(grown > 4 && grown <= 8, "limit " + grown);
+
+        /* a single request in flight does not push the limit up */
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.release(TARGET / 2, false);
+        }
+        Assertions.assertEquals(grown, limiter.getLimit());
+    }
+
+    @Test
+    void testLimitBacksOffOnSlowOrFailedRequestsDownToTheMinimum() {
+        var limiter = new AdaptiveConcurrencyLimiter(8, 2, 8, TARGET, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(TARGET * 2, false);
+        Assertions.assertEquals(4, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(TARGET / 2, true);
+        Assertions.assertEquals(2, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(TARGET * 2, false);
+        Assertions.assertEquals(2, limiter.getLimit());
+    }
+}
@@ -0,0 +1,40 @@
+package challenge.unitary;
+
+import challenge.configuration.admission.AdmissionFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+class AdmissionFilterTest {
+
+    @Test
+    void testRequestOverTheConcurrencyLimitIsRejected() throws Exception {
+        var filter = filter(1);
+        var nested = new MockHttpServletResponse[1];
+
+        var request = new MockHttpServletRequest("GET", "/credit-cards/1");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            nested[0] = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/credit-cards/2"), nested[0], new MockFilterChain());
+        });
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), nested[0].getStatus());
+        Assertions.assertEquals("1", nested[0].getHeader(HttpHeaders.RETRY_AFTER));
+        /* the permit is back once the first one finishes */
+        var response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/credit-cards/3"), response, new MockFilterChain());
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatus());
+    }
+
+    private static AdmissionFilter filter(int concurrencyLimit) {
+        return new AdmissionFilter(true, concurrencyLimit, 1, concurrencyLimit, Duration.ofSeconds(1), 0.9,
+                Duration.ofSeconds(1), new ObjectMapper());
+    }
+}
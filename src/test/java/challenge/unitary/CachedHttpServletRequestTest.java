@@ -0,0 +1,89 @@
+package challenge.unitary;
+
+import challenge.configuration.logging.CachedHttpServletRequest;
+import challenge.configuration.logging.RequestBodyBufferPool;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+class CachedHttpServletRequestTest {
+
+    private final RequestBodyBufferPool pool = new RequestBodyBufferPool(16, 1);
+
+    @Test
+    void testSmallBodyIsKeptInTheBufferAndReplayed() throws IOException {
+        var body = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+
+        try (var request = new CachedHttpServletRequest(request(body), pool)) {
+            Assertions.assertFalse(request.isSpilled());
+            Assertions.assertEquals(body.length, request.getCachedLength());
+            Assertions.assertEquals("{\"a\":1}", request.getCachedPrefix());
+            Assertions.assertArrayEquals(body, request.getInputStream().readAllBytes());
+            Assertions.assertArrayEquals(body, request.getInputStream().readAllBytes());
+        }
+    }
+
+    @Test
+    void testOversizedBodyIsSpilledAndReplayedWhole() throws IOException {
+        var body = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.UTF_8);
+
+        try (var request = new CachedHttpServletRequest(request(body), pool)) {
+            Assertions.assertTrue(request.isSpilled());
+            Assertions.assertEquals(body.length, request.getCachedLength());
+            Assertions.assertEquals("0123456789abcdef", request.getCachedPrefix());
+
+            var stream = request.getInputStream();
+            var chunk = new byte[10];
+            Assertions.assertEquals(10, stream.read(chunk, 0, chunk.length));
+            Assertions.assertEquals("0123456789", new String(chunk, StandardCharsets.UTF_8));
+            Assertions.assertEquals("abcdefghijklmnopqrstuvwxyz", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+            Assertions.assertTrue(stream.isFinished());
+        }
+    }
+
+    @Test
+    void testBodyOfExactlyTheBufferSizeIsNotSpilled() throws IOException {
+        var body = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+        try (var request = new CachedHttpServletRequest(request(body), pool)) {
+            Assertions.assertFalse(request.isSpilled());
+            Assertions.assertArrayEquals(body, request.getInputStream().readAllBytes());
+        }
+    }
+
+    @Test
+    void testClosedRequestBufferIsReused() throws IOException {
+        var request = new CachedHttpServletRequest(request(new byte[]{1}), pool);
+        request.close();
+
+        var buffer = pool.acquire();
+        Assertions.assertNotNull(buffer);
+        Assertions.assertEquals(1, buffer[0]);
+    }
+
+    @Test
+    void testBufferIsGivenBackWhenTheBodyCannotBeRead() {
+        var buffer = new byte[16];
+        pool.release(buffer);
+        var request = new MockHttpServletRequest("POST", "/credit-cards") {
+            @Override
+            public ServletInputStream getInputStream() {
+                throw new UncheckedIOException(new IOException("connection reset"));
+            }
+        };
+
+        Assertions.assertThrows(UncheckedIOException.class, () -> new CachedHttpServletRequest(request, pool));
+        Assertions.assertSame(buffer, pool.acquire());
+    }
+
+    private static MockHttpServletRequest request(byte[] body) {
+        var request = new MockHttpServletRequest("POST", "/credit-cards");
+        request.setContent(body);
+        return request;
+    }
+}
@@ -0,0 +1,51 @@
+package challenge.unitary;
+
+import challenge.configuration.security.CachingAuthenticationProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.time.Duration;
+import java.util.List;
+
+class CachingAuthenticationProviderTest {
+
+    private final AuthenticationProvider delegate = Mockito.mock(AuthenticationProvider.class);
+    private final CachingAuthenticationProvider provider = new CachingAuthenticationProvider(delegate, Duration.ofMinutes(1), 10);
+
+    @Test
+    void testVerifiedCredentialsAreNotCheckedAgain() {
+        var authenticated = UsernamePasswordAuthenticationToken.authenticated("user", null, List.of());
+        Mockito.when(delegate.authenticate(ArgumentMatchers.any())).thenReturn(authenticated);
+
+        Assertions.assertSame(authenticated, provider.authenticate(request("user", "secret")));
+        Assertions.assertSame(authenticated, provider.authenticate(request("user", "secret")));
+
+        Mockito.verify(delegate, Mockito.times(1)).authenticate(ArgumentMatchers.any());
+    }
+
+    @Test
+    void testFailedOrDifferentCredentialsAlwaysReachTheDelegate() {
+        var authenticated = UsernamePasswordAuthenticationToken.authenticated("user", null, List.of());
+        Mockito.when(delegate.authenticate(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            if (!"secret".equals(invocation.<UsernamePasswordAuthenticationToken>getArgument(0).getCredentials())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            return authenticated;
+        });
+
+        provider.authenticate(request("user", "secret"));
+
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(request("user", "wrong")));
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(request("user", "wrong")));
+        Mockito.verify(delegate, Mockito.times(3)).authenticate(ArgumentMatchers.any());
+    }
+
+    private static UsernamePasswordAuthenticationToken request(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
@@ -0,0 +1,147 @@
+package challenge.unitary;
+
+import challenge.event.ChangeType;
+import challenge.event.CreditCardsCreatedEvent;
+import challenge.exception.InvalidJournalOffsetException;
+import challenge.identifier.UuidV7;
+import challenge.journal.CardChangeJournal;
+import challenge.journal.JournalEntry;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+class CardChangeJournalTest {
+
+    private static final String CUSTOMER_ID = "customer_id";
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testAppendsAreReadBackInOrderAcrossSegments() throws Exception {
+        var journal = open();
+        var ids = new ArrayList<String>();
+        var appends = new ArrayList<CompletableFuture<Long>>();
+
+        for (var i = 0; i < 100; i++) {
+            var id = UuidV7.generate().toString();
+            ids.add(id);
+            appends.add(journal.append(ChangeType.CREATED, id, CUSTOMER_ID, Brand.VISA, Status.ACTIVE));
+        }
+        appends.add(journal.append(ChangeType.DEACTIVATED, null, CUSTOMER_ID, null, Status.INACTIVE));
+
+        var offsets = appends.stream().map(CompletableFuture::join).toList();
+        var entries = readAll(journal, 0);
+
+        Assertions.assertTrue(files() > 1);
+        Assertions.assertEquals(offsets, entries.stream().map(JournalEntry::offset).toList());
+        Assertions.assertEquals(ids, entries.subList(0, 100).stream().map(JournalEntry::id).toList());
+        Assertions.assertEquals(
+                new JournalEntry(offsets.get(100), entries.get(100).timestamp(), ChangeType.DEACTIVATED, null, CUSTOMER_ID, null, Status.INACTIVE),
+                entries.get(100)
+        );
+        Assertions.assertThrows(InvalidJournalOffsetException.class, () -> journal.read(offsets.get(1) + 1, 1));
+        journal.close();
+    }
+
+    @Test
+    void testReopenedJournalContinuesAfterTheLastCompleteRecord() throws Exception {
+        var journal = open();
+        var first = journal.append(ChangeType.CREATED, UuidV7.generate().toString(), CUSTOMER_ID, Brand.AMEX, Status.ACTIVE).join();
+        var end = journal.getCommittedOffset();
+        journal.close();
+
+        /* a torn record after the end, as a crash in the middle of a batch would leave */
+        try (var channel = FileChannel.open(directory.resolve(String.format("%020d.journal", 0)), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putInt(20).putInt(1234).flip(), end);
+        }
+
+        var reopened = open();
+        Assertions.assertEquals(end, reopened.getCommittedOffset());
+
+        var second = reopened.append(ChangeType.UPDATED, UuidV7.generate().toString(), CUSTOMER_ID, Brand.AMEX, Status.ACTIVE).join();
+        Assertions.assertEquals(end, second);
+        Assertions.assertEquals(List.of(first, second), readAll(reopened, 0).stream().map(JournalEntry::offset).toList());
+        reopened.close();
+    }
+
+    @Test
+    void testCreatedChunkIsJournaledInOrderBeforeTheListenerReturns() throws Exception {
+        var journal = open();
+        var cards = new ArrayList<CreditCardDto>();
+        for (var i = 0; i < 200; i++) {
+            cards.add(new CreditCardDto(UuidV7.generate().toString(), CUSTOMER_ID, 4000000000000000L + i,
+                    Brand.MASTERCARD, Status.ACTIVE, LocalDateTime.now()));
+        }
+
+        journal.on(new CreditCardsCreatedEvent(cards));
+
+        var entries = readAll(journal, 0);
+        Assertions.assertEquals(cards.stream().map(CreditCardDto::id).toList(), entries.stream().map(JournalEntry::id).toList());
+        Assertions.assertTrue(entries.stream().allMatch(entry -> entry.type() == ChangeType.CREATED));
+        journal.close();
+    }
+
+    @Test
+    void testSegmentsOverTheRetentionAreDeleted() throws Exception {
+        var journal = open(2);
+        for (var i = 0; i < 100; i++) {
+            journal.append(ChangeType.CREATED, UuidV7.generate().toString(), CUSTOMER_ID, Brand.VISA, Status.ACTIVE).join();
+        }
+
+        Assertions.assertEquals(2, files());
+        Assertions.assertThrows(InvalidJournalOffsetException.class, () -> journal.read(0, 1));
+
+        /* the oldest retained segment is read through to the end */
+        try (var files = Files.list(directory)) {
+            var oldest = files.map(file -> file.getFileName().toString()).sorted().findFirst().orElseThrow();
+            var entries = readAll(journal, Long.parseLong(oldest.substring(0, oldest.indexOf('.'))));
+            Assertions.assertFalse(entries.isEmpty());
+            Assertions.assertEquals(journal.getCommittedOffset(), journal.read(entries.get(entries.size() - 1).offset(), 1).nextOffset());
+        }
+        journal.close();
+    }
+
+    private CardChangeJournal open() throws IOException {
+        return open(0);
+    }
+
+    private CardChangeJournal open(int retainedSegments) throws IOException {
+        return new CardChangeJournal(directory.toString(), DataSize.ofKilobytes(1), 16, 64, true, retainedSegments,
+                Duration.ofSeconds(5));
+    }
+
+    private List<JournalEntry> readAll(CardChangeJournal journal, long offset) {
+        var entries = new ArrayList<JournalEntry>();
+        while (true) {
+            var page = journal.read(offset, 7);
+            if (page.entries().isEmpty()) {
+                return entries;
+            }
+            entries.addAll(page.entries());
+            offset = page.nextOffset();
+        }
+    }
+
+    private long files() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package challenge.unitary;
+
+import challenge.cache.CreditCardCache;
+import challenge.event.CustomerCardsDeactivatedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CreditCardCacheTest {
+
+    private static final String CUSTOMER_ID = "customer_id";
+
+    private final CreditCardCache creditCardCache = new CreditCardCache(10, 10, 10, Duration.ofMinutes(1));
+
+    @Test
+    void testCustomerQueryLoaderMayReadTheCacheItself() {
+        /* a loader run inside the map lock would fail here with a recursive update */
+        var result = creditCardCache.getCustomerQuery(CUSTOMER_ID, "outer",
+                () -> creditCardCache.getCustomerQuery(CUSTOMER_ID, "inner", () -> 1) + 1);
+
+        Assertions.assertEquals(2, result);
+        Assertions.assertEquals(2, creditCardCache.<Integer>getCachedCustomerQuery(CUSTOMER_ID, "outer").orElseThrow());
+        Assertions.assertEquals(1, creditCardCache.<Integer>getCachedCustomerQuery(CUSTOMER_ID, "inner").orElseThrow());
+    }
+
+    @Test
+    void testCustomerQueryReadBeforeAnInvalidationIsNotCached() {
+        var loads = new AtomicInteger();
+
+        creditCardCache.getCustomerQuery(CUSTOMER_ID, "query", () -> {
+            /* the change commits while the query holds the old result */
+            creditCardCache.on(new CustomerCardsDeactivatedEvent(CUSTOMER_ID, null, 1));
+            return loads.incrementAndGet();
+        });
+
+        Assertions.assertTrue(creditCardCache.getCachedCustomerQuery(CUSTOMER_ID, "query").isEmpty());
+        Assertions.assertEquals(2, creditCardCache.getCustomerQuery(CUSTOMER_ID, "query", loads::incrementAndGet));
+    }
+}
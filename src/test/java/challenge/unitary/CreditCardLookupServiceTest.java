@@ -0,0 +1,77 @@
+package challenge.unitary;
+
+import challenge.cache.CreditCardCache;
+import challenge.event.ChangeType;
+import challenge.event.CreditCardChangedEvent;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.VersionedCreditCardDto;
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+import challenge.repository.CreditCardRepository;
+import challenge.service.CreditCardLookupService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+class CreditCardLookupServiceTest {
+
+    private final CreditCardRepository creditCardRepository = Mockito.mock(CreditCardRepository.class);
+    private final CreditCardCache creditCardCache = new CreditCardCache(10, 10, 10, Duration.ofMinutes(1));
+    private final CreditCardLookupService lookupService = new CreditCardLookupService(creditCardRepository, creditCardCache, 2);
+
+    @Test
+    void testIdsAreReadInChunksAndFoundCardsAreCached() {
+        Mockito.when(creditCardRepository.findVersionedDtosByIds(ArgumentMatchers.any())).thenAnswer(invocation ->
+                invocation.<Collection<UUID>>getArgument(0).stream().map(CreditCardLookupServiceTest::card).toList());
+        var ids = IntStream.range(0, 5).mapToObj(i -> new UUID(1, i).toString()).toList();
+
+        var result = lookupService.lookup(ids);
+
+        Assertions.assertEquals(ids, result.cards().stream().map(CreditCardDto::id).toList());
+        Assertions.assertTrue(result.missingIds().isEmpty());
+        Mockito.verify(creditCardRepository, Mockito.times(3)).findVersionedDtosByIds(ArgumentMatchers.any());
+
+        lookupService.lookup(ids);
+        Mockito.verifyNoMoreInteractions(creditCardRepository);
+    }
+
+    @Test
+    void testMalformedAndUnknownIdsAreMissing() {
+        var known = new UUID(1, 1);
+        Mockito.when(creditCardRepository.findVersionedDtosByIds(ArgumentMatchers.any())).thenReturn(List.of(card(known)));
+
+        var result = lookupService.lookup(List.of("CARD_8", known.toString(), new UUID(1, 2).toString()));
+
+        Assertions.assertEquals(List.of(known.toString()), result.cards().stream().map(CreditCardDto::id).toList());
+        Assertions.assertEquals(List.of("CARD_8", new UUID(1, 2).toString()), result.missingIds());
+    }
+
+    @Test
+    void testCardsReadBeforeAnInvalidationAreNotCached() {
+        var id = new UUID(1, 1);
+        Mockito.when(creditCardRepository.findVersionedDtosByIds(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            /* the update commits while the lookup holds the old row */
+            creditCardCache.on(new CreditCardChangedEvent(ChangeType.UPDATED, card(id).card(), card(id).card()));
+            return List.of(card(id));
+        });
+
+        var result = lookupService.lookup(List.of(id.toString()));
+
+        Assertions.assertEquals(List.of(id.toString()), result.cards().stream().map(CreditCardDto::id).toList());
+        Assertions.assertTrue(creditCardCache.getCachedCard(id.toString()).isEmpty());
+    }
+
+    private static VersionedCreditCardDto card(UUID id) {
+        return new VersionedCreditCardDto(
+                new CreditCardDto(id.toString(), "customer", 4578122134435665L, Brand.VISA, Status.ACTIVE, null),
+                0
+        );
+    }
+}
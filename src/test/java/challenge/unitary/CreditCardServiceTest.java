@@ -1,92 +1,180 @@
 package challenge.unitary;
 
+import challenge.cache.CreditCardCache;
+import challenge.event.CreditCardChangedEvent;
 import challenge.exception.CardAlreadyCloseException;
 import challenge.exception.CreditCardAlreadyExistsException;
 import challenge.exception.CreditCardNotFoundException;
+import challenge.index.CardNumberIndex;
+import challenge.mapper.CreditCardDtoMapper;
 import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.VersionedCreditCardDto;
 import challenge.model.entity.CreditCard;
 import challenge.model.enums.Brand;
 import challenge.model.enums.Status;
 import challenge.repository.CreditCardRepository;
 import challenge.service.CreditCardService;
+import challenge.service.CreditCardTotalsService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 class CreditCardServiceTest {
 
     private static final String CUSTOMER_ID = "customer_id";
     private CreditCardRepository creditCardRepository;
     private CreditCardService creditCardService;
+    private ApplicationEventPublisher eventPublisher;
+    private CardNumberIndex cardNumberIndex;
 
-    private static final String CARD_ID = "60f2adb9-865a-4b8a-8a83eb";
+    private static final String CARD_ID = "0194d8c0-2800-7000-8000-60f2adb9865a";
+    private static final UUID CARD_UUID = UUID.fromString(CARD_ID);
     private static final Long CARD_NUMBER = 4578122134435665L;
 
     @BeforeEach
     void setUp() {
         creditCardRepository = Mockito.mock(CreditCardRepository.class);
-        creditCardService = new CreditCardService(creditCardRepository);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        cardNumberIndex = new CardNumberIndex(creditCardRepository, 16);
+        creditCardService = new CreditCardService(
+                creditCardRepository,
+                new CreditCardTotalsService(creditCardRepository, 10, Duration.ofMinutes(1)),
+                new CreditCardCache(10, 10, 10, Duration.ofMinutes(1)),
+                cardNumberIndex,
+                eventPublisher
+        );
     }
 
     @Test
     void testCardNotFoundByIdThrowsException() {
-        Mockito.when(creditCardRepository.findById(CARD_ID)).thenReturn(Optional.empty());
+        Mockito.when(creditCardRepository.findVersionedDtoById(CARD_UUID)).thenReturn(Optional.empty());
         Assertions.assertThrows(CreditCardNotFoundException.class, () -> creditCardService.getById(CARD_ID));
     }
 
+    @Test
+    void testMalformedIdThrowsNotFound() {
+        Assertions.assertThrows(CreditCardNotFoundException.class, () -> creditCardService.getById("CARD_8"));
+        Mockito.verifyNoInteractions(creditCardRepository);
+    }
+
     @Test
     void testCardIsFoundById() {
-        var card = card(Status.ACTIVE);
-        Mockito.when(creditCardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
+        var card = CreditCardDtoMapper.map(card(Status.ACTIVE));
+        Mockito.when(creditCardRepository.findVersionedDtoById(CARD_UUID)).thenReturn(Optional.of(new VersionedCreditCardDto(card, 0)));
         Assertions.assertEquals(card, creditCardService.getById(CARD_ID));
     }
 
+    @Test
+    void testCardByIdIsServedFromCache() {
+        Mockito.when(creditCardRepository.findVersionedDtoById(CARD_UUID)).thenReturn(Optional.of(new VersionedCreditCardDto(CreditCardDtoMapper.map(card(Status.ACTIVE)), 0)));
+
+        creditCardService.getById(CARD_ID);
+        creditCardService.getById(CARD_ID);
+
+        Mockito.verify(creditCardRepository, Mockito.times(1)).findVersionedDtoById(CARD_UUID);
+    }
+
+    @Test
+    void testVersionIsReadWithoutLoadingTheCard() {
+        Mockito.when(creditCardRepository.findVersionById(CARD_UUID)).thenReturn(Optional.of(3L));
+
+        Assertions.assertEquals(3, creditCardService.getVersion(CARD_ID));
+        Mockito.verify(creditCardRepository, Mockito.never()).findVersionedDtoById(CARD_UUID);
+    }
+
+    @Test
+    void testVersionOfCachedCardSkipsDatabase() {
+        var card = CreditCardDtoMapper.map(card(Status.ACTIVE));
+        Mockito.when(creditCardRepository.findVersionedDtoById(CARD_UUID)).thenReturn(Optional.of(new VersionedCreditCardDto(card, 2)));
+
+        creditCardService.getById(CARD_ID);
+
+        Assertions.assertEquals(2, creditCardService.getVersion(CARD_ID));
+        Mockito.verify(creditCardRepository, Mockito.never()).findVersionById(CARD_UUID);
+    }
+
     @Test
     void testExistingCardOnCreationThrowsException() {
         var request = cardDto();
-        Mockito.when(creditCardRepository.findByNumber(CARD_NUMBER)).thenReturn(Optional.of(card(Status.ACTIVE)));
+        Mockito.when(creditCardRepository.existsByNumber(CARD_NUMBER)).thenReturn(true);
+        Assertions.assertThrows(CreditCardAlreadyExistsException.class, () -> creditCardService.create(request));
+    }
+
+    @Test
+    void testNumberAbsentFromLoadedIndexSkipsDatabaseCheck() {
+        Mockito.when(creditCardRepository.streamAllNumbers()).thenReturn(Stream.empty());
+        cardNumberIndex.load();
+        mockRepositorySave();
+
+        creditCardService.create(cardDto());
+
+        Mockito.verify(creditCardRepository, Mockito.never()).existsByNumber(Mockito.any());
+    }
+
+    @Test
+    void testUniqueViolationOnCreationThrowsException() {
+        Mockito.when(creditCardRepository.saveAndFlush(Mockito.any())).thenThrow(new DataIntegrityViolationException("CARD_NUMBER"));
+
+        var request = cardDto();
         Assertions.assertThrows(CreditCardAlreadyExistsException.class, () -> creditCardService.create(request));
     }
 
     @Test
     void testCardAlreadyInactiveThrowsException() {
         var card = card(Status.INACTIVE);
-        Mockito.when(creditCardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
+        Mockito.when(creditCardRepository.findById(CARD_UUID)).thenReturn(Optional.of(card));
         Assertions.assertThrows(CardAlreadyCloseException.class, () -> creditCardService.remove(CARD_ID));
     }
 
     @Test
     void testCardCreation() {
-        Mockito.when(creditCardRepository.findByNumber(CARD_NUMBER)).thenReturn(Optional.empty());
+        Mockito.when(creditCardRepository.existsByNumber(CARD_NUMBER)).thenReturn(false);
         mockRepositorySave();
 
         var card = creditCardService.create(cardDto());
 
-        Mockito.verify(creditCardRepository, Mockito.times(1)).save(Mockito.any());
+        Mockito.verify(creditCardRepository, Mockito.times(1)).saveAndFlush(Mockito.any());
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(Mockito.any(CreditCardChangedEvent.class));
         Assertions.assertNotNull(card);
         Assertions.assertNotNull(card.getId());
+        Assertions.assertEquals(Status.ACTIVE, card.getStatus());
     }
 
     @Test
     void testCardRemoval() {
-        Mockito.when(creditCardRepository.findById(CARD_ID)).thenReturn(Optional.of(card(Status.ACTIVE)));
-        mockRepositorySave();
+        Mockito.when(creditCardRepository.findById(CARD_UUID)).thenReturn(Optional.of(card(Status.ACTIVE)));
+        Mockito.when(creditCardRepository.deactivate(Mockito.eq(CARD_UUID), Mockito.any())).thenReturn(1);
 
         var card = creditCardService.remove(CARD_ID);
         Assertions.assertEquals(Status.INACTIVE, card.getStatus());
         Assertions.assertEquals(LocalDate.now(), card.getLastModifiedDate().toLocalDate());
+        Assertions.assertEquals(1L, card.getVersion());
+        Mockito.verify(creditCardRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void testConcurrentRemovalThrowsException() {
+        Mockito.when(creditCardRepository.findById(CARD_UUID)).thenReturn(Optional.of(card(Status.ACTIVE)));
+        Mockito.when(creditCardRepository.deactivate(Mockito.eq(CARD_UUID), Mockito.any())).thenReturn(0);
+
+        Assertions.assertThrows(CardAlreadyCloseException.class, () -> creditCardService.remove(CARD_ID));
+        Mockito.verify(eventPublisher, Mockito.never()).publishEvent(Mockito.any());
     }
 
     @Test
     void testCardUpdateWithAlreadyUsedNumber() {
-        var card = card(Status.ACTIVE);
-        Mockito.when(creditCardRepository.findByNumber(CARD_NUMBER)).thenReturn(Optional.of(card));
-        Mockito.when(creditCardRepository.findById(CARD_ID)).thenReturn(Optional.of(new CreditCard()));
+        Mockito.when(creditCardRepository.existsByNumber(CARD_NUMBER)).thenReturn(true);
+        Mockito.when(creditCardRepository.findById(CARD_UUID)).thenReturn(Optional.of(new CreditCard()));
 
         var request = cardDto();
         Assertions.assertThrows(CreditCardAlreadyExistsException.class, () -> creditCardService.update(CARD_ID, request));
@@ -95,7 +183,7 @@ class CreditCardServiceTest {
     @Test
     void testCardIsUpdate() {
         var card = card(Status.ACTIVE);
-        Mockito.when(creditCardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
+        Mockito.when(creditCardRepository.findById(CARD_UUID)).thenReturn(Optional.of(card));
         mockRepositorySave();
 
         var request = cardDto();
@@ -104,11 +192,12 @@ class CreditCardServiceTest {
 
     private CreditCard card(Status status) {
         var card = new CreditCard();
-        card.setId(CARD_ID);
+        card.setId(CARD_UUID);
         card.setCustomer(CUSTOMER_ID);
         card.setNumber(CARD_NUMBER);
         card.setBrand(Brand.VISA);
         card.setStatus(status);
+        card.setVersion(0L);
         return card;
     }
 
@@ -124,6 +213,6 @@ class CreditCardServiceTest {
     }
 
     private void mockRepositorySave() {
-        Mockito.when(creditCardRepository.save(Mockito.any())).thenAnswer(i -> i.getArguments()[0]);
+        Mockito.when(creditCardRepository.saveAndFlush(Mockito.any())).thenAnswer(i -> i.getArguments()[0]);
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package challenge.unitary;
+
+import challenge.event.ChangeType;
+import challenge.event.CreditCardChangedEvent;
+import challenge.event.CustomerCardsDeactivatedEvent;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.criteria.CreditCardCriteriaDto;
+import challenge.model.enums.Brand;
+import challenge.model.enums.Status;
+import challenge.repository.CreditCardRepository;
+import challenge.repository.StatusCount;
+import challenge.service.CreditCardTotalsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+
+class CreditCardTotalsServiceTest {
+
+    private static final String CUSTOMER_ID = "customer_id";
+
+    private CreditCardRepository creditCardRepository;
+    private CreditCardTotalsService creditCardTotalsService;
+
+    @BeforeEach
+    void setUp() {
+        creditCardRepository = Mockito.mock(CreditCardRepository.class);
+        creditCardTotalsService = new CreditCardTotalsService(creditCardRepository, 10, Duration.ofMinutes(1));
+        Mockito.when(creditCardRepository.countByStatus(CUSTOMER_ID)).thenReturn(List.of(
+                count(Status.ACTIVE, 3),
+                count(Status.INACTIVE, 2)
+        ));
+    }
+
+    @Test
+    void testTotalsAreLoadedOnce() {
+        Assertions.assertEquals(5, creditCardTotalsService.getTotal(new CreditCardCriteriaDto(CUSTOMER_ID, null)));
+        Assertions.assertEquals(3, creditCardTotalsService.getTotal(new CreditCardCriteriaDto(CUSTOMER_ID, Status.ACTIVE)));
+        Assertions.assertEquals(2, creditCardTotalsService.getTotal(new CreditCardCriteriaDto(CUSTOMER_ID, Status.INACTIVE)));
+
+        Mockito.verify(creditCardRepository, Mockito.times(1)).countByStatus(CUSTOMER_ID);
+    }
+
+    @Test
+    void testTotalsFollowChangeEvents() {
+        creditCardTotalsService.getTotal(new CreditCardCriteriaDto(CUSTOMER_ID, null));
+
+        creditCardTotalsService.on(new CreditCardChangedEvent(ChangeType.CREATED, null, card(Status.ACTIVE)));
+        creditCardTotalsService.on(new CreditCardChangedEvent(ChangeType.DEACTIVATED, card(Status.ACTIVE), card(Status.INACTIVE)));
+
+        Assertions.assertEquals(3, creditCardTotalsService.getTotal(new CreditCardCriteriaDto(CUSTOMER_ID, Status.ACTIVE)));
+        Assertions.assertEquals(3, creditCardTotalsService.getTotal(new CreditCardCriteriaDto(CUSTOMER_ID, Status.INACTIVE)));
+    }
+
+    @Test
+    void testBulkDeactivationMovesActiveToInactive() {
+        creditCardTotalsService.getTotal(new CreditCardCriteriaDto(CUSTOMER_ID, null));
+
+        creditCardTotalsService.on(new CustomerCardsDeactivatedEvent(CUSTOMER_ID, null, 3));
+
+        Assertions.assertEquals(0, creditCardTotalsService.getTotal(new CreditCardCriteriaDto(CUSTOMER_ID, Status.ACTIVE)));
+        Assertions.assertEquals(5, creditCardTotalsService.getTotal(new CreditCardCriteriaDto(CUSTOMER_ID, Status.INACTIVE)));
+        Assertions.assertEquals(5, creditCardTotalsService.getTotal(new CreditCardCriteriaDto(CUSTOMER_ID, null)));
+    }
+
+    @Test
+    void testCountRacingWithAChangeIsNotKept() {
+        Mockito.when(creditCardRepository.countByStatus(CUSTOMER_ID)).thenAnswer(invocation -> {
+            /* committed while the count runs, the count may or may not include it */
+            creditCardTotalsService.on(new CreditCardChangedEvent(ChangeType.CREATED, null, card(Status.ACTIVE)));
+            return List.of(count(Status.ACTIVE, 3), count(Status.INACTIVE, 2));
+        });
+
+        Assertions.assertEquals(5, creditCardTotalsService.getTotal(new CreditCardCriteriaDto(CUSTOMER_ID, null)));
+        Assertions.assertEquals(5, creditCardTotalsService.getTotal(new CreditCardCriteriaDto(CUSTOMER_ID, null)));
+
+        Mockito.verify(creditCardRepository, Mockito.times(2)).countByStatus(CUSTOMER_ID);
+    }
+
+    private CreditCardDto card(Status status) {
+        return new CreditCardDto("id", CUSTOMER_ID, 4578122134435665L, Brand.VISA, status, null);
+    }
+
+    private StatusCount count(Status status, long total) {
+        return new StatusCount() {
+            @Override
+            public Status getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package challenge.unitary;
+
+import challenge.configuration.admission.CustomerRateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+
+class CustomerRateLimitFilterTest {
+
+    private final CustomerRateLimitFilter filter = new CustomerRateLimitFilter(true, 1000, 1, 2, new ObjectMapper());
+
+    @Test
+    void testCustomerOverItsBurstIsRejectedWithRetryAfter() throws Exception {
+        Assertions.assertEquals(HttpStatus.OK.value(), get("noisy", true).getStatus());
+        Assertions.assertEquals(HttpStatus.OK.value(), get("noisy", true).getStatus());
+
+        var rejected = get("noisy", true);
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        Assertions.assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        Assertions.assertTrue(rejected.getContentAsString().contains("too_many_requests"));
+
+        /* another customer has its own bucket */
+        Assertions.assertEquals(HttpStatus.OK.value(), get("quiet", true).getStatus());
+    }
+
+    @Test
+    void testAnonymousRequestsDoNotSpendTheCustomerTokens() throws Exception {
+        for (var i = 0; i < 5; i++) {
+            get("victim", false);
+        }
+
+        Assertions.assertEquals(HttpStatus.OK.value(), get("victim", true).getStatus());
+        Assertions.assertEquals(HttpStatus.OK.value(), get("victim", true).getStatus());
+    }
+
+    private MockHttpServletResponse get(String customer, boolean authenticated) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/credit-cards");
+        request.setParameter("customer_id", customer);
+        if (authenticated) {
+            request.setUserPrincipal(new TestingAuthenticationToken("user", "password"));
+        }
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
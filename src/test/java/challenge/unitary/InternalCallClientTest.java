@@ -0,0 +1,119 @@
+package challenge.unitary;
+
+import challenge.client.InternalCallClient;
+import challenge.client.InternalCallClientProperties;
+import challenge.client.exception.InternalCallClientException;
+import challenge.model.dto.criteria.CreditCardCriteriaDto;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class InternalCallClientTest {
+
+    private static final byte[] RESPONSE = """
+            {"content":[{"id":"CARD_1","customer":"CUSTOMER_ID","number":5000000000000001,"brand":"VISA","status":"ACTIVE"}],
+            "totalPages":1,"totalElements":1,"number":0,"size":20}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private static final CreditCardCriteriaDto CRITERIA = new CreditCardCriteriaDto("CUSTOMER_ID", null);
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private volatile long firstRequestDelay;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/credit-cards", exchange -> {
+            if (requests.getAndIncrement() == 0) {
+                sleep(firstRequestDelay);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (var body = exchange.getResponseBody()) {
+                body.write(RESPONSE);
+            } catch (IOException ex) {
+                /* hedged request cancelled by the client */
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testCardsAreRetrieved() {
+        var client = client(Duration.ofSeconds(3), false);
+
+        var cards = client.getCards(CRITERIA, PageRequest.of(0, 20));
+
+        Assertions.assertEquals(1, cards.totalElements());
+        Assertions.assertEquals("CARD_1", cards.content().get(0).id());
+        Assertions.assertEquals(1, meterRegistry.get("internal.call.latency").tag("outcome", "success").timer().count());
+        client.close();
+    }
+
+    @Test
+    void testSlowResponseThrowsException() {
+        firstRequestDelay = 1000;
+        var client = client(Duration.ofMillis(200), false);
+
+        Assertions.assertThrows(InternalCallClientException.class, () -> client.getCards(CRITERIA, PageRequest.of(0, 20)));
+        client.close();
+    }
+
+    @Test
+    void testHedgedRequestAnswersBeforeSlowOne() {
+        firstRequestDelay = 2000;
+        var client = client(Duration.ofSeconds(3), true);
+
+        var start = System.nanoTime();
+        var cards = client.getCards(CRITERIA, PageRequest.of(0, 20));
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Assertions.assertEquals(1, cards.totalElements());
+        Assertions.assertEquals(2, requests.get());
+        Assertions.assertTrue(elapsed.compareTo(Duration.ofMillis(1500)) < 0);
+        client.close();
+    }
+
+    private InternalCallClient client(Duration readTimeout, boolean hedge) {
+        return new InternalCallClient(new InternalCallClientProperties(
+                "http://localhost:" + server.getAddress().getPort(),
+                "user",
+                "password",
+                Duration.ofSeconds(1),
+                readTimeout,
+                10,
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(30),
+                new InternalCallClientProperties.Hedge(hedge, 0.95, Duration.ofMillis(20), Duration.ofMillis(100), Duration.ofMinutes(1))
+        ), WebClient.builder(), meterRegistry);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
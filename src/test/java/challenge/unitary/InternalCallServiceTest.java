@@ -0,0 +1,106 @@
+package challenge.unitary;
+
+import challenge.client.InternalCallClient;
+import challenge.client.model.PageResponseDto;
+import challenge.model.dto.CreditCardDto;
+import challenge.model.dto.criteria.CreditCardCriteriaDto;
+import challenge.service.InternalCallService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+class InternalCallServiceTest {
+
+    private static final CreditCardCriteriaDto CRITERIA = new CreditCardCriteriaDto("CUSTOMER_ID", null);
+    private static final PageRequest PAGEABLE = PageRequest.of(0, 20);
+    private static final PageResponseDto<CreditCardDto> RESPONSE = new PageResponseDto<>(List.of(), 0, 0, 0, 20);
+
+    private InternalCallClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = Mockito.mock(InternalCallClient.class);
+    }
+
+    @Test
+    void testConcurrentCallsShareOneRequest() throws Exception {
+        var service = new InternalCallService(client, Duration.ZERO, 10);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        Mockito.when(client.getCards(CRITERIA, PAGEABLE)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return RESPONSE;
+        });
+
+        var first = CompletableFuture.supplyAsync(() -> service.getCards(CRITERIA, PAGEABLE));
+        started.await();
+
+        var waiter = new Thread(() -> service.getCards(CRITERIA, PAGEABLE));
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        waiter.join();
+        Assertions.assertEquals(0, first.get().getTotalElements());
+        Mockito.verify(client, Mockito.times(1)).getCards(CRITERIA, PAGEABLE);
+    }
+
+    @Test
+    void testErrorOfTheSharedRequestReachesTheWaiters() throws Exception {
+        var service = new InternalCallService(client, Duration.ZERO, 10);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        Mockito.when(client.getCards(CRITERIA, PAGEABLE)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            throw new StackOverflowError();
+        });
+
+        var first = CompletableFuture.runAsync(() -> service.getCards(CRITERIA, PAGEABLE));
+        started.await();
+
+        var failure = new AtomicReference<Throwable>();
+        var waiter = new Thread(() -> {
+            try {
+                service.getCards(CRITERIA, PAGEABLE);
+            } catch (Throwable ex) {
+                failure.set(ex);
+            }
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        waiter.join(5000);
+        Assertions.assertFalse(waiter.isAlive());
+        Assertions.assertInstanceOf(StackOverflowError.class, failure.get());
+        Assertions.assertThrows(ExecutionException.class, first::get);
+    }
+
+    @Test
+    void testResultCacheAvoidsSecondRequest() {
+        var service = new InternalCallService(client, Duration.ofSeconds(5), 10);
+        Mockito.when(client.getCards(CRITERIA, PAGEABLE)).thenReturn(RESPONSE);
+
+        Page<CreditCardDto> first = service.getCards(CRITERIA, PAGEABLE);
+        Page<CreditCardDto> second = service.getCards(CRITERIA, PAGEABLE);
+
+        Assertions.assertEquals(first.getContent(), second.getContent());
+        Mockito.verify(client, Mockito.times(1)).getCards(CRITERIA, PAGEABLE);
+    }
+}
@@ -0,0 +1,45 @@
+package challenge.unitary;
+
+import challenge.configuration.logging.CachedHttpServletRequest;
+import challenge.configuration.logging.CardNumberMasker;
+import challenge.configuration.logging.LoggingFilter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+class LoggingFilterTest {
+
+    private final LoggingFilter filter = new LoggingFilter(true, DataSize.ofBytes(64), 1);
+
+    @Test
+    void testCapturedBodyOfAnAsyncRequestIsReleasedWhenItCompletes() throws Exception {
+        var request = new MockHttpServletRequest("POST", "/credit-cards");
+        request.setContent("{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        request.setAsyncSupported(true);
+        var captured = new AtomicReference<CachedHttpServletRequest>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            captured.set((CachedHttpServletRequest) req);
+            req.startAsync();
+        });
+
+        Assertions.assertFalse(captured.get().isClosed());
+        request.getAsyncContext().complete();
+        Assertions.assertTrue(captured.get().isClosed());
+    }
+
+    @Test
+    void testCardNumbersAreMaskedButTheLastFourDigits() {
+        Assertions.assertEquals(
+                "[{\"number\": ************1111, \"cvv\": 123}, {\"number\":\"************4444\"}]",
+                CardNumberMasker.mask("[{\"number\": 4111111111111111, \"cvv\": 123}, {\"number\":\"5555555555554444\"}]")
+        );
+        Assertions.assertEquals("{\"number\":********", CardNumberMasker.mask("{\"number\":41111111"));
+        Assertions.assertEquals("{\"customer_id\":\"1\"}", CardNumberMasker.mask("{\"customer_id\":\"1\"}"));
+    }
+}
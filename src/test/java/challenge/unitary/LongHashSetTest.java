@@ -0,0 +1,35 @@
+package challenge.unitary;
+
+import challenge.index.LongHashSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LongHashSetTest {
+
+    @Test
+    void testAddedValuesAreContained() {
+        var set = new LongHashSet(4);
+
+        for (var number = 5000000000000000L; number < 5000000000010000L; number++) {
+            Assertions.assertTrue(set.add(number));
+        }
+
+        Assertions.assertEquals(10000, set.size());
+        Assertions.assertTrue(set.contains(5000000000000000L));
+        Assertions.assertTrue(set.contains(5000000000009999L));
+        Assertions.assertFalse(set.contains(5000000000010000L));
+    }
+
+    @Test
+    void testDuplicatedAndZeroValues() {
+        var set = new LongHashSet(4);
+
+        Assertions.assertTrue(set.add(0L));
+        Assertions.assertFalse(set.add(0L));
+        Assertions.assertTrue(set.add(4501000100010001L));
+        Assertions.assertFalse(set.add(4501000100010001L));
+
+        Assertions.assertEquals(2, set.size());
+        Assertions.assertTrue(set.contains(0L));
+    }
+}
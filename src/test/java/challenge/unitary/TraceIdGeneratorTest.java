@@ -0,0 +1,30 @@
+package challenge.unitary;
+
+import challenge.configuration.logging.TraceIdGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+class TraceIdGeneratorTest {
+
+    @Test
+    void testTraceIdsAreHexAndUnique() {
+        var ids = new HashSet<String>();
+        for (int i = 0; i < 10_000; i++) {
+            var id = TraceIdGenerator.next();
+            Assertions.assertTrue(id.matches("[0-9a-f]{32}"), id);
+            ids.add(id);
+        }
+        Assertions.assertEquals(10_000, ids.size());
+    }
+
+    @Test
+    void testTraceIdsAreOrderedByTime() throws InterruptedException {
+        var first = TraceIdGenerator.next();
+        Thread.sleep(2);
+        var second = TraceIdGenerator.next();
+
+        Assertions.assertTrue(first.compareTo(second) < 0);
+    }
+}
@@ -0,0 +1,26 @@
+package challenge.unitary;
+
+import challenge.identifier.UuidV7;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class UuidV7Test {
+
+    @Test
+    void testVersionVariantAndTimestamp() {
+        var millis = 1_738_800_000_000L;
+        var uuid = UuidV7.generate(millis);
+
+        Assertions.assertEquals(7, uuid.version());
+        Assertions.assertEquals(2, uuid.variant());
+        Assertions.assertEquals(millis, uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void testLaterIdsSortAfterEarlierOnes() {
+        var first = UuidV7.generate(1_738_800_000_000L).toString();
+        var second = UuidV7.generate(1_738_800_000_001L).toString();
+
+        Assertions.assertTrue(first.compareTo(second) < 0);
+    }
+}
@@ -1,3 +1,3 @@
-INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE) VALUES ('CARD_1', 'CUSTOMER_TEST_ID', 5000000000000001, 'MASTERCARD', 'ACTIVE', '2025-02-06 00:00:00');
-INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE) VALUES ('CARD_2', 'CUSTOMER_TEST_ID', 5000000000000002, 'MASTERCARD', 'INACTIVE', '2025-02-06 00:00:00');
-INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE) VALUES ('CARD_3', 'OTHER_CUSTOMER_ID', 5000000000000003, 'MASTERCARD', 'ACTIVE', '2025-02-06 00:00:00');
\ No newline at end of file
+INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE, LAST_MODIFIED_DATE) VALUES (CAST('0194d8c0-2800-7000-8000-000000000001' AS UUID), 'CUSTOMER_TEST_ID', 5000000000000001, 'MASTERCARD', 'ACTIVE', '2025-02-06 00:00:00', '2025-02-06 00:00:00');
+INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE, LAST_MODIFIED_DATE) VALUES (CAST('0194d8c0-2800-7000-8000-000000000002' AS UUID), 'CUSTOMER_TEST_ID', 5000000000000002, 'MASTERCARD', 'INACTIVE', '2025-02-06 00:00:00', '2025-02-06 00:00:00');
+INSERT INTO CREDIT_CARDS (ID, CUSTOMER_ID, CARD_NUMBER, BRAND, STATUS, CREATED_DATE, LAST_MODIFIED_DATE) VALUES (CAST('0194d8c0-2800-7000-8000-000000000003' AS UUID), 'OTHER_CUSTOMER_ID', 5000000000000003, 'MASTERCARD', 'ACTIVE', '2025-02-06 00:00:00', '2025-02-06 00:00:00');